@@ -1,26 +1,65 @@
 package org.blueobsidian.worldTimer;
 
+import org.blueobsidian.worldTimer.api.WorldTimerApi;
+import org.blueobsidian.worldTimer.api.WorldTimerService;
 import org.blueobsidian.worldTimer.command.WorldTimerCommand;
 import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.blueobsidian.worldTimer.config.RegionConfig;
+import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.config.WorldPattern;
+import org.blueobsidian.worldTimer.diagnostics.Diagnostics;
+import org.blueobsidian.worldTimer.display.CountdownDisplay;
+import org.blueobsidian.worldTimer.history.SessionHistory;
+import org.blueobsidian.worldTimer.listener.CooldownDenialCache;
 import org.blueobsidian.worldTimer.listener.PlayerListener;
+import org.blueobsidian.worldTimer.listener.RegionListener;
+import org.blueobsidian.worldTimer.listener.WorldListener;
 import org.blueobsidian.worldTimer.permission.PermissionResolver;
+import org.blueobsidian.worldTimer.placeholder.WorldTimerExpansion;
+import org.blueobsidian.worldTimer.region.RegionTracker;
+import org.blueobsidian.worldTimer.state.PlayerStateCache;
+import org.blueobsidian.worldTimer.storage.FlatFileStorage;
+import org.blueobsidian.worldTimer.storage.InMemoryStorage;
 import org.blueobsidian.worldTimer.storage.SQLiteStorage;
+import org.blueobsidian.worldTimer.storage.StorageExecutor;
+import org.blueobsidian.worldTimer.storage.StorageMaintenance;
 import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.sync.TimerSync;
+import org.blueobsidian.worldTimer.timer.TickBudget;
 import org.blueobsidian.worldTimer.timer.TimerManager;
 import org.blueobsidian.worldTimer.timer.TimerTask;
-import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.transfer.DataTransfer;
+import org.blueobsidian.worldTimer.util.Clock;
+import org.blueobsidian.worldTimer.util.TickClock;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.List;
+import java.util.Map;
+
 public final class WorldTimer extends JavaPlugin {
 
     private PluginConfig pluginConfig;
     private StorageManager storageManager;
+    private StorageExecutor storageExecutor;
+    private StorageMaintenance storageMaintenance;
+    private TimerSync timerSync;
     private PermissionResolver permissionResolver;
     private TimerManager timerManager;
     private TimerTask timerTask;
+    private CooldownDenialCache cooldownDenials;
+    private SessionHistory sessionHistory;
+    private PlayerStateCache playerStates;
+    private DataTransfer dataTransfer;
+    private RegionTracker regionTracker;
+    private TickClock tickClock;
+    private TickBudget tickBudget;
+    private volatile Clock clock;
+    private Diagnostics diagnostics;
+    private CountdownDisplay countdownDisplay;
 
     @Override
     public void onEnable() {
@@ -28,20 +67,72 @@ public final class WorldTimer extends JavaPlugin {
         pluginConfig = new PluginConfig(this);
         pluginConfig.load();
 
+        // Time source for timers and cooldowns, read once per tick
+        tickClock = new TickClock();
+        tickClock.start(this);
+        clock = tickClock;
+
+        // Main-thread time budget, measured from here on
+        tickBudget = new TickBudget(this);
+        tickBudget.start();
+
+        // Start diagnostics channel
+        diagnostics = new Diagnostics(this);
+        diagnostics.start(pluginConfig.getDiagnosticsConfig());
+
         // Initialize storage
-        storageManager = new SQLiteStorage(this);
+        switch (pluginConfig.getStorageType().toLowerCase()) {
+            case "flatfile" -> storageManager = new FlatFileStorage(this);
+            case "memory" -> storageManager = new InMemoryStorage();
+            default -> storageManager = new SQLiteStorage(this);
+        }
         storageManager.init();
+        storageExecutor = new StorageExecutor(getLogger(), pluginConfig.isStorageVirtualThreads(),
+                pluginConfig.getStorageMaxConcurrency(), pluginConfig.getStorageQueueSize(),
+                pluginConfig.getStorageTimeoutMillis());
+        getLogger().info("Storage operations run on " + (storageExecutor.isVirtual() ? "virtual threads." : "a thread pool."));
+
+        // Retention pruning and compaction in the background
+        storageMaintenance = new StorageMaintenance(this, storageManager);
+        storageMaintenance.start();
+
+        // Initialize last world / return location cache
+        playerStates = new PlayerStateCache(this, storageManager);
+        playerStates.start();
+
+        // Export and import of stored data
+        dataTransfer = new DataTransfer(this, storageManager);
 
         // Initialize permission resolver
         permissionResolver = new PermissionResolver();
 
+        // Initialize session history
+        sessionHistory = new SessionHistory(this, storageManager, pluginConfig.getHistoryBufferSize());
+        sessionHistory.start();
+
+        // Initialize countdown display
+        countdownDisplay = new CountdownDisplay(this);
+
         // Initialize timer manager
-        timerManager = new TimerManager(this, storageManager, permissionResolver);
+        timerManager = new TimerManager(this, storageManager, permissionResolver, playerStates);
+
+        // Follow changes from other servers before reading cooldowns, so none fall in between
+        timerSync = new TimerSync(this, storageManager);
+        timerSync.start();
+        timerManager.loadCooldowns();
+
+        // Initialize cooldown denial cache
+        cooldownDenials = new CooldownDenialCache(
+                pluginConfig.getDenialDebounceMillis(), pluginConfig.getDenialMessageIntervalMillis()
+        );
 
         // Register events
         getServer().getPluginManager().registerEvents(
-                new PlayerListener(this, timerManager, storageManager), this
+                new PlayerListener(this, timerManager, storageManager, playerStates, cooldownDenials), this
         );
+        regionTracker = new RegionTracker(this, timerManager);
+        getServer().getPluginManager().registerEvents(new RegionListener(regionTracker, tickBudget), this);
+        getServer().getPluginManager().registerEvents(new WorldListener(pluginConfig), this);
 
         // Register commands
         WorldTimerCommand cmdExecutor = new WorldTimerCommand(this);
@@ -54,6 +145,19 @@ public final class WorldTimer extends JavaPlugin {
         // Start timer task
         startTimerTask();
 
+        // Track players who were already online (plugin reload / hot deploy)
+        timerManager.bootstrapOnlinePlayers();
+        regionTracker.refreshAll();
+
+        // Register public API
+        getServer().getServicesManager().register(WorldTimerApi.class, new WorldTimerService(this), this, ServicePriority.Normal);
+
+        // Register PlaceholderAPI expansion
+        if (getServer().getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+            new WorldTimerExpansion(this).register();
+            getLogger().info("PlaceholderAPI detected. Registered %worldtimer_...% placeholders.");
+        }
+
         // Log LuckPerms status
         boolean luckPermsEnabled = getServer().getPluginManager().isPluginEnabled("LuckPerms");
         if (luckPermsEnabled) {
@@ -62,7 +166,9 @@ public final class WorldTimer extends JavaPlugin {
             getLogger().warning("LuckPerms not found. Using default limits and cooldowns from config.");
         }
 
-        getLogger().info("WorldTimer enabled. Tracking " + pluginConfig.getWorldConfigs().size() + " world(s).");
+        getLogger().info("WorldTimer enabled. Tracking " + pluginConfig.getWorldConfigs().size() + " world(s), "
+                + pluginConfig.getWorldPatterns().size() + " world pattern(s) and "
+                + pluginConfig.getRegionConfigs().size() + " region(s).");
 
         // Validate configured worlds exist on the server
         for (WorldConfig wc : pluginConfig.getWorldConfigs().values()) {
@@ -74,55 +180,129 @@ public final class WorldTimer extends JavaPlugin {
                 getLogger().warning("  Available worlds: " + Bukkit.getWorlds().stream().map(World::getName).toList());
             }
         }
+        for (WorldPattern pattern : pluginConfig.getWorldPatterns()) {
+            List<String> matched = Bukkit.getWorlds().stream().map(World::getName).filter(pattern::matches).toList();
+            getLogger().info("  World pattern '" + pattern.getExpression() + "' -> matches " + matched);
+        }
+        for (RegionConfig region : pluginConfig.getRegionConfigs().values()) {
+            if (Bukkit.getWorld(region.getWorld()) == null) {
+                getLogger().warning("  Region '" + region.getWorldName() + "' is in world '" + region.getWorld() + "' -> NOT FOUND on server!");
+            }
+        }
     }
 
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
+
         // Stop timer task
         if (timerTask != null) {
             timerTask.cancel();
         }
+        if (tickClock != null) {
+            tickClock.stop();
+        }
+        if (tickBudget != null) {
+            tickBudget.stop();
+        }
 
         // Save all active timers
         if (timerManager != null) {
             timerManager.saveAll();
         }
 
+        // Remove countdown displays
+        if (countdownDisplay != null) {
+            countdownDisplay.clearAll();
+        }
+
+        // Write buffered session history
+        if (sessionHistory != null) {
+            sessionHistory.stop();
+        }
+
+        // Send the saves above to other servers
+        if (timerSync != null) {
+            timerSync.stop();
+        }
+
+        // No maintenance batches once the backend starts closing
+        if (storageMaintenance != null) {
+            storageMaintenance.stop();
+        }
+
+        // Cancel an export or import still running on its own async task
+        if (dataTransfer != null) {
+            dataTransfer.stop(pluginConfig.getStorageTimeoutMillis());
+        }
+
+        // Let running storage operations finish before closing the backend
+        if (storageExecutor != null) {
+            storageExecutor.shutdown(pluginConfig.getStorageTimeoutMillis());
+        }
+
+        // Write last worlds and return locations not yet written
+        if (playerStates != null) {
+            playerStates.stop();
+        }
+
         // Shutdown storage
         if (storageManager != null) {
             storageManager.shutdown();
         }
 
+        // Stop diagnostics after everything else has logged
+        if (diagnostics != null) {
+            diagnostics.stop();
+        }
+
         getLogger().info("WorldTimer disabled.");
     }
 
     /**
-     * Reloads the plugin configuration and restarts the timer task.
+     * Reloads the plugin configuration. Sessions in worlds whose config did not change
+     * keep running untouched; the timer task is only restarted if tick-seconds changed.
      */
     public void reload() {
-        // Save active timers before reload
-        if (timerManager != null) {
-            timerManager.saveAll();
-        }
-
-        // Stop current task
-        if (timerTask != null) {
-            timerTask.cancel();
-        }
+        // Remember what was loaded before, load() replaces the world map contents
+        Map<String, WorldConfig> previousTimers = pluginConfig.getTimerConfigs();
+        int previousTickSeconds = pluginConfig.getTickSeconds();
 
         // Reload config
         pluginConfig.load();
+        if ((pluginConfig.isSyncEnabled() || pluginConfig.isSqliteShared()) && storageManager instanceof SQLiteStorage sqlite) {
+            sqlite.disableRowFilter();
+        }
+        cooldownDenials.configure(pluginConfig.getDenialDebounceMillis(), pluginConfig.getDenialMessageIntervalMillis());
+        sessionHistory.start();
+        playerStates.start();
+        storageMaintenance.start();
+        timerSync.start();
+        tickBudget.start();
+        diagnostics.start(pluginConfig.getDiagnosticsConfig());
 
-        // Restart timer task
-        startTimerTask();
+        // Only touch sessions in worlds and regions that were added, removed or changed
+        regionTracker.rebuild();
+        timerManager.applyWorldChanges(previousTimers);
+        regionTracker.refreshAll();
+
+        // Restart timer task only if its interval changed
+        if (pluginConfig.getTickSeconds() != previousTickSeconds) {
+            if (timerTask != null) {
+                timerTask.cancel();
+            }
+            startTimerTask();
+        }
 
-        getLogger().info("WorldTimer reloaded. Tracking " + pluginConfig.getWorldConfigs().size() + " world(s).");
+        getLogger().info("WorldTimer reloaded. Tracking " + pluginConfig.getWorldConfigs().size() + " world(s), "
+                + pluginConfig.getWorldPatterns().size() + " world pattern(s) and "
+                + pluginConfig.getRegionConfigs().size() + " region(s).");
     }
 
     private void startTimerTask() {
         int tickSeconds = pluginConfig.getTickSeconds();
         long intervalTicks = tickSeconds * 20L; // Convert seconds to ticks
-        timerTask = new TimerTask(timerManager, tickSeconds);
+        timerTask = new TimerTask(timerManager, tickBudget, tickSeconds);
         timerTask.runTaskTimer(this, intervalTicks, intervalTicks);
     }
 
@@ -134,6 +314,18 @@ public final class WorldTimer extends JavaPlugin {
         return storageManager;
     }
 
+    public StorageExecutor getStorageExecutor() {
+        return storageExecutor;
+    }
+
+    public StorageMaintenance getStorageMaintenance() {
+        return storageMaintenance;
+    }
+
+    public TimerSync getTimerSync() {
+        return timerSync;
+    }
+
     public PermissionResolver getPermissionResolver() {
         return permissionResolver;
     }
@@ -141,4 +333,48 @@ public final class WorldTimer extends JavaPlugin {
     public TimerManager getTimerManager() {
         return timerManager;
     }
+
+    public CooldownDenialCache getCooldownDenials() {
+        return cooldownDenials;
+    }
+
+    public SessionHistory getSessionHistory() {
+        return sessionHistory;
+    }
+
+    public TickBudget getTickBudget() {
+        return tickBudget;
+    }
+
+    public DataTransfer getDataTransfer() {
+        return dataTransfer;
+    }
+
+    public PlayerStateCache getPlayerStates() {
+        return playerStates;
+    }
+
+    public RegionTracker getRegionTracker() {
+        return regionTracker;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Replaces the time source, e.g. with a {@link org.blueobsidian.worldTimer.util.SimulatedClock}
+     * in tests and benchmarks. Cooldowns already set keep their epoch-second expiry.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Diagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    public CountdownDisplay getCountdownDisplay() {
+        return countdownDisplay;
+    }
 }
@@ -0,0 +1,71 @@
+package org.blueobsidian.worldTimer.api;
+
+import java.util.UUID;
+
+/**
+ * Point-in-time timer state for a player in a timed world, returned by {@link WorldTimerApi}.
+ */
+public final class TimerStatus {
+
+    private final UUID playerUuid;
+    private final String worldName;
+    private final long secondsUsed;
+    private final long limitSeconds; // -1 = unlimited
+    private final long cooldownRemainingSeconds;
+    private final boolean tracking;
+
+    public TimerStatus(UUID playerUuid, String worldName, long secondsUsed, long limitSeconds,
+                       long cooldownRemainingSeconds, boolean tracking) {
+        this.playerUuid = playerUuid;
+        this.worldName = worldName;
+        this.secondsUsed = secondsUsed;
+        this.limitSeconds = limitSeconds;
+        this.cooldownRemainingSeconds = cooldownRemainingSeconds;
+        this.tracking = tracking;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getSecondsUsed() {
+        return secondsUsed;
+    }
+
+    /**
+     * Returns the time limit in seconds, or -1 if unlimited.
+     */
+    public long getLimitSeconds() {
+        return limitSeconds;
+    }
+
+    public boolean isUnlimited() {
+        return limitSeconds == -1;
+    }
+
+    /**
+     * Returns the remaining time in seconds, or -1 if unlimited.
+     */
+    public long getRemainingSeconds() {
+        return isUnlimited() ? -1 : Math.max(0, limitSeconds - secondsUsed);
+    }
+
+    public long getCooldownRemainingSeconds() {
+        return cooldownRemainingSeconds;
+    }
+
+    public boolean isOnCooldown() {
+        return cooldownRemainingSeconds > 0;
+    }
+
+    /**
+     * Whether the player is currently in the world and being timed.
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+}
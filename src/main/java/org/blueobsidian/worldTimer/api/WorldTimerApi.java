@@ -0,0 +1,64 @@
+package org.blueobsidian.worldTimer.api;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Public API for other plugins, registered as a Bukkit service:
+ * <pre>
+ * WorldTimerApi api = Bukkit.getServicesManager().load(WorldTimerApi.class);
+ * </pre>
+ * No method blocks the caller. Reads are answered from memory when the player has
+ * an active or recent session and fall back to an async storage read otherwise.
+ * Writes are applied on the main thread. Futures may complete on the main thread
+ * or on an async thread; hop back to the main thread before touching Bukkit state.
+ */
+public interface WorldTimerApi {
+
+    /**
+     * Returns true if the world has an enabled timer. Region names from the config's
+     * regions section are accepted wherever a world name is, here and in every other method.
+     */
+    boolean isWorldTimed(String worldName);
+
+    CompletableFuture<TimerStatus> getStatus(UUID playerUuid, String worldName);
+
+    /**
+     * Returns the remaining time in seconds, or -1 if unlimited.
+     */
+    CompletableFuture<Long> getRemainingSeconds(UUID playerUuid, String worldName);
+
+    /**
+     * Returns the remaining cooldown in seconds, or 0 if none. Always answered from memory.
+     */
+    CompletableFuture<Long> getCooldownRemainingSeconds(UUID playerUuid, String worldName);
+
+    /**
+     * Grants extra time by reducing the seconds used.
+     */
+    CompletableFuture<Void> addTime(UUID playerUuid, String worldName, long seconds);
+
+    /**
+     * Sets the cooldown to the given number of seconds from now; 0 clears it.
+     */
+    CompletableFuture<Void> setCooldown(UUID playerUuid, String worldName, long seconds);
+
+    /**
+     * Clears time used and cooldown.
+     */
+    CompletableFuture<Void> reset(UUID playerUuid, String worldName);
+
+    CompletableFuture<Map<UUID, TimerStatus>> getStatuses(Collection<UUID> playerUuids, String worldName);
+
+    /**
+     * Grants extra time to every listed player in a single main-thread pass.
+     */
+    CompletableFuture<Void> addTime(Collection<UUID> playerUuids, String worldName, long seconds);
+
+    /**
+     * Sets the cooldown for every listed player in a single main-thread pass.
+     */
+    CompletableFuture<Void> setCooldown(Collection<UUID> playerUuids, String worldName, long seconds);
+}
@@ -0,0 +1,253 @@
+package org.blueobsidian.worldTimer.api;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.timer.SessionSnapshot;
+import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * {@link WorldTimerApi} implementation registered with the Bukkit services manager.
+ * Reads come from the snapshot cache and cooldown ledger when possible; misses are loaded
+ * in one batch on the storage executor and only the limit resolution hops to the main thread. Writes go
+ * through {@link TimerManager} on the main thread, the same path as the admin commands; rows of players
+ * without a live session are loaded and written back in batches on the storage executor.
+ */
+public class WorldTimerService implements WorldTimerApi {
+
+    private final WorldTimer plugin;
+
+    public WorldTimerService(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isWorldTimed(String worldName) {
+        return plugin.getPluginConfig().isTimerConfigured(worldName);
+    }
+
+    @Override
+    public CompletableFuture<TimerStatus> getStatus(UUID playerUuid, String worldName) {
+        return getStatuses(List.of(playerUuid), worldName).thenApply(statuses -> statuses.get(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Long> getRemainingSeconds(UUID playerUuid, String worldName) {
+        return getStatus(playerUuid, worldName).thenApply(TimerStatus::getRemainingSeconds);
+    }
+
+    @Override
+    public CompletableFuture<Long> getCooldownRemainingSeconds(UUID playerUuid, String worldName) {
+        return CompletableFuture.completedFuture(
+                plugin.getTimerManager().getCooldownRemainingSeconds(playerUuid, worldName));
+    }
+
+    @Override
+    public CompletableFuture<Void> addTime(UUID playerUuid, String worldName, long seconds) {
+        return addTime(List.of(playerUuid), worldName, seconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> setCooldown(UUID playerUuid, String worldName, long seconds) {
+        return setCooldown(List.of(playerUuid), worldName, seconds);
+    }
+
+    @Override
+    public CompletableFuture<Void> reset(UUID playerUuid, String worldName) {
+        return write(List.of(playerUuid), worldName, uuid -> plugin.getTimerManager().resetPlayer(uuid, worldName));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, TimerStatus>> getStatuses(Collection<UUID> playerUuids, String worldName) {
+        String world = worldName.toLowerCase();
+        TimerManager timerManager = plugin.getTimerManager();
+        Map<UUID, TimerStatus> result = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+
+        // Serve whatever we can from memory
+        for (UUID uuid : playerUuids) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, world);
+            if (snapshot != null && snapshot.isLimitKnown()) {
+                result.put(uuid, new TimerStatus(uuid, world, snapshot.getSecondsUsed(), snapshot.getLimit(),
+                        timerManager.getCooldownRemainingSeconds(uuid, world), snapshot.isTracking()));
+            } else {
+                misses.add(uuid);
+            }
+        }
+        if (misses.isEmpty()) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        // Load the rest off the main thread, then resolve limits on it
+        CompletableFuture<Map<UUID, TimerStatus>> future = new CompletableFuture<>();
+        Map<UUID, String> playerWorlds = new HashMap<>();
+        for (UUID uuid : misses) {
+            playerWorlds.put(uuid, world);
+        }
+        CompletableFuture<List<PlayerTimerData>> load = plugin.getStorageExecutor()
+                .submit("api-status", () -> plugin.getStorageManager().loadData(playerWorlds));
+        load.whenComplete((loaded, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            runSync(future, () -> {
+                for (PlayerTimerData data : loaded) {
+                    UUID uuid = data.getPlayerUuid();
+                    result.put(uuid, new TimerStatus(uuid, world, data.getSecondsUsed(), resolveLimit(uuid, world),
+                            timerManager.getCooldownRemainingSeconds(uuid, world), false));
+                }
+                future.complete(result);
+            });
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Void> addTime(Collection<UUID> playerUuids, String worldName, long seconds) {
+        return update(playerUuids, worldName,
+                (uuid, stored) -> plugin.getTimerManager().addTime(uuid, worldName, seconds, stored));
+    }
+
+    @Override
+    public CompletableFuture<Void> setCooldown(Collection<UUID> playerUuids, String worldName, long seconds) {
+        return update(playerUuids, worldName,
+                (uuid, stored) -> plugin.getTimerManager().setCooldown(uuid, worldName, seconds, stored));
+    }
+
+    /**
+     * Applies a change to many players. Their stored rows are loaded in one batch on the
+     * storage executor, the change is applied to all of them in a single main-thread pass,
+     * and the rows of players without a live session are written back on the executor.
+     * Live sessions are saved right away, so the write cannot land after a later exit save.
+     */
+    private CompletableFuture<Void> update(Collection<UUID> playerUuids, String worldName, Update action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!isWorldTimed(worldName)) {
+            future.completeExceptionally(new IllegalArgumentException("World not configured: " + worldName));
+            return future;
+        }
+        String world = worldName.toLowerCase();
+        Map<UUID, String> playerWorlds = new HashMap<>();
+        for (UUID uuid : playerUuids) {
+            playerWorlds.put(uuid, world);
+        }
+        StorageManager storage = plugin.getStorageManager();
+        CompletableFuture<List<PlayerTimerData>> load = plugin.getStorageExecutor()
+                .submit("api-load", () -> storage.loadData(playerWorlds));
+        load.whenComplete((loaded, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            runSync(future, () -> {
+                TimerManager timerManager = plugin.getTimerManager();
+                List<PlayerTimerData> offline = new ArrayList<>();
+                for (PlayerTimerData stored : loaded) {
+                    UUID uuid = stored.getPlayerUuid();
+                    boolean live = timerManager.isTracking(uuid, world);
+                    PlayerTimerData changed = action.apply(uuid, stored);
+                    if (live) {
+                        storage.saveData(changed);
+                    } else {
+                        offline.add(changed);
+                    }
+                }
+                if (offline.isEmpty()) {
+                    future.complete(null);
+                    return;
+                }
+                plugin.getStorageExecutor().run("api-write", () -> {
+                    for (PlayerTimerData data : offline) {
+                        storage.saveData(data);
+                    }
+                }).whenComplete((ignored, writeError) -> {
+                    if (writeError != null) {
+                        future.completeExceptionally(writeError);
+                    } else {
+                        future.complete(null);
+                    }
+                });
+            });
+        });
+        return future;
+    }
+
+    /**
+     * Applies a write for each player in one main-thread task.
+     */
+    private CompletableFuture<Void> write(Collection<UUID> playerUuids, String worldName, Consumer<UUID> action) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!isWorldTimed(worldName)) {
+            future.completeExceptionally(new IllegalArgumentException("World not configured: " + worldName));
+            return future;
+        }
+        List<UUID> targets = List.copyOf(playerUuids);
+        runSync(future, () -> {
+            for (UUID uuid : targets) {
+                action.accept(uuid);
+            }
+            future.complete(null);
+        });
+        return future;
+    }
+
+    /**
+     * Resolves a player's limit on the main thread. Offline players get the world default.
+     */
+    private long resolveLimit(UUID uuid, String worldName) {
+        WorldConfig wc = plugin.getPluginConfig().getTimerConfig(worldName);
+        if (wc == null) {
+            return -1;
+        }
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null) {
+            return plugin.getPermissionResolver().resolveLimit(player, wc);
+        }
+        return wc.getDefaultLimitSeconds();
+    }
+
+    private void runSync(CompletableFuture<?> future, Runnable task) {
+        Runnable guarded = guard(future, task);
+        if (Bukkit.isPrimaryThread()) {
+            guarded.run();
+        } else {
+            try {
+                plugin.getServer().getScheduler().runTask(plugin, guarded);
+            } catch (RuntimeException e) {
+                // Plugin is disabling
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * A change applied to one player on the main thread, returning the row to save.
+     */
+    @FunctionalInterface
+    private interface Update {
+        PlayerTimerData apply(UUID uuid, PlayerTimerData stored);
+    }
+
+    private static Runnable guard(CompletableFuture<?> future, Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        };
+    }
+}
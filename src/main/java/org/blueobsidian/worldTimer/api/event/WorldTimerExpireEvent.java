@@ -0,0 +1,57 @@
+package org.blueobsidian.worldTimer.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when a player's time in a timed world runs out,
+ * before expire commands run and the player is teleported out.
+ * Only constructed when at least one listener is registered.
+ */
+public class WorldTimerExpireEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String worldName;
+    private final long secondsUsed;
+    private final long cooldownSeconds;
+
+    public WorldTimerExpireEvent(Player player, String worldName, long secondsUsed, long cooldownSeconds) {
+        super(player);
+        this.worldName = worldName;
+        this.secondsUsed = secondsUsed;
+        this.cooldownSeconds = cooldownSeconds;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getSecondsUsed() {
+        return secondsUsed;
+    }
+
+    /**
+     * Returns the cooldown that will be applied, in seconds.
+     */
+    public long getCooldownSeconds() {
+        return cooldownSeconds;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Returns true if any plugin listens for this event, so callers can skip building it.
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
@@ -0,0 +1,47 @@
+package org.blueobsidian.worldTimer.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when a player crosses a warning threshold in a timed world.
+ * Only constructed when at least one listener is registered.
+ */
+public class WorldTimerWarnEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String worldName;
+    private final long remainingSeconds;
+
+    public WorldTimerWarnEvent(Player player, String worldName, long remainingSeconds) {
+        super(player);
+        this.worldName = worldName;
+        this.remainingSeconds = remainingSeconds;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Returns true if any plugin listens for this event, so callers can skip building it.
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
@@ -3,9 +3,18 @@ package org.blueobsidian.worldTimer.command;
 import org.blueobsidian.worldTimer.WorldTimer;
 import org.blueobsidian.worldTimer.config.MessageConfig;
 import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.listener.CooldownDenialCache;
 import org.blueobsidian.worldTimer.permission.PermissionResolver;
+import org.blueobsidian.worldTimer.region.RegionTracker;
+import org.blueobsidian.worldTimer.state.PlayerStateCache;
 import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.StorageExecutor;
+import org.blueobsidian.worldTimer.storage.StorageMaintenance;
+import org.blueobsidian.worldTimer.sync.TimerSync;
+import org.blueobsidian.worldTimer.timer.SessionTable;
+import org.blueobsidian.worldTimer.timer.TickBudget;
 import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.blueobsidian.worldTimer.transfer.TransferFormat;
 import org.blueobsidian.worldTimer.util.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -15,6 +24,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -41,6 +51,9 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
             case "reset" -> handleReset(sender, args);
             case "addtime" -> handleAddTime(sender, args);
             case "setcooldown" -> handleSetCooldown(sender, args);
+            case "stats" -> handleStats(sender);
+            case "export" -> handleExport(sender, args);
+            case "import" -> handleImport(sender, args);
             default -> sendHelp(sender);
         }
 
@@ -85,7 +98,7 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.GOLD + "=== WorldTimer Status: " + target.getName() + " ===");
         sender.sendMessage(ChatColor.GRAY + "Current world: " + target.getWorld().getName());
 
-        for (Map.Entry<String, WorldConfig> entry : plugin.getPluginConfig().getWorldConfigs().entrySet()) {
+        for (Map.Entry<String, WorldConfig> entry : plugin.getPluginConfig().getTimerConfigs().entrySet()) {
             WorldConfig wc = entry.getValue();
             if (!wc.isEnabled()) continue;
 
@@ -114,8 +127,9 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
                 sender.sendMessage(ChatColor.YELLOW + "    Remaining: " + ChatColor.WHITE + remainStr);
             }
 
-            if (data.isCooldownActive()) {
-                String cdStr = TimeUtil.formatTime(data.getCooldownRemainingSeconds());
+            long now = plugin.getClock().seconds();
+            if (data.isCooldownActive(now)) {
+                String cdStr = TimeUtil.formatTime(data.getCooldownRemainingSeconds(now));
                 sender.sendMessage(ChatColor.RED + "    Cooldown: " + ChatColor.WHITE + cdStr);
             } else {
                 sender.sendMessage(ChatColor.GREEN + "    Cooldown: " + ChatColor.WHITE + "None");
@@ -141,8 +155,8 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         }
 
         String worldName = args[2].toLowerCase();
-        if (!plugin.getPluginConfig().isWorldConfigured(worldName)) {
-            sender.sendMessage(ChatColor.RED + "World not configured: " + worldName);
+        if (!plugin.getPluginConfig().isTimerConfigured(worldName)) {
+            sender.sendMessage(ChatColor.RED + "World or region not configured: " + worldName);
             return;
         }
 
@@ -168,8 +182,8 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         }
 
         String worldName = args[2].toLowerCase();
-        if (!plugin.getPluginConfig().isWorldConfigured(worldName)) {
-            sender.sendMessage(ChatColor.RED + "World not configured: " + worldName);
+        if (!plugin.getPluginConfig().isTimerConfigured(worldName)) {
+            sender.sendMessage(ChatColor.RED + "World or region not configured: " + worldName);
             return;
         }
 
@@ -206,8 +220,8 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         }
 
         String worldName = args[2].toLowerCase();
-        if (!plugin.getPluginConfig().isWorldConfigured(worldName)) {
-            sender.sendMessage(ChatColor.RED + "World not configured: " + worldName);
+        if (!plugin.getPluginConfig().isTimerConfigured(worldName)) {
+            sender.sendMessage(ChatColor.RED + "World or region not configured: " + worldName);
             return;
         }
 
@@ -229,6 +243,95 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void handleStats(CommandSender sender) {
+        if (!sender.hasPermission("worldtimer.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
+            return;
+        }
+
+        CooldownDenialCache denials = plugin.getCooldownDenials();
+        sender.sendMessage(ChatColor.GOLD + "=== WorldTimer Stats ===");
+        SessionTable sessions = plugin.getTimerManager().getSessions();
+        sender.sendMessage(ChatColor.YELLOW + "Active sessions: " + ChatColor.WHITE + sessions.size()
+                + ChatColor.GRAY + " (slots scanned: " + sessions.getHighWater() + ", capacity: " + sessions.getCapacity() + ")");
+        sender.sendMessage(ChatColor.YELLOW + "Cooldown denials: " + ChatColor.WHITE + denials.getDenied());
+        sender.sendMessage(ChatColor.YELLOW + "Suppressed attempts: " + ChatColor.WHITE + denials.getSuppressedAttempts());
+        sender.sendMessage(ChatColor.YELLOW + "Suppressed messages: " + ChatColor.WHITE + denials.getSuppressedMessages());
+        sender.sendMessage(ChatColor.YELLOW + "History buffered: " + ChatColor.WHITE + plugin.getSessionHistory().getBuffered()
+                + ChatColor.GRAY + " (dropped: " + plugin.getSessionHistory().getDropped() + ")");
+        StorageExecutor executor = plugin.getStorageExecutor();
+        sender.sendMessage(ChatColor.YELLOW + "Storage operations: " + ChatColor.WHITE + executor.getSubmitted()
+                + ChatColor.GRAY + " (pending: " + executor.getPending() + ", running: " + executor.getInFlight() + ", timed out: " + executor.getTimedOut()
+                + ", rejected: " + executor.getRejected() + ", " + (executor.isVirtual() ? "virtual threads" : "thread pool") + ")");
+        StorageMaintenance maintenance = plugin.getStorageMaintenance();
+        sender.sendMessage(ChatColor.YELLOW + "Storage maintenance: " + ChatColor.WHITE + maintenance.getRuns() + " run(s)"
+                + ChatColor.GRAY + " (idle timers removed: " + maintenance.getTimersPruned() + ", player state removed: "
+                + maintenance.getPlayerStatePruned() + ", pages freed: " + maintenance.getPagesFreed() + ")");
+        TimerSync sync = plugin.getTimerSync();
+        sender.sendMessage(ChatColor.YELLOW + "Timer sync: " + ChatColor.WHITE + (sync.isEnabled() ? sync.getServer() : "off")
+                + ChatColor.GRAY + " (published: " + sync.getPublished() + ", received: " + sync.getReceived() + ")");
+        RegionTracker regions = plugin.getRegionTracker();
+        sender.sendMessage(ChatColor.YELLOW + "Regions: " + ChatColor.WHITE + regions.getIndex().getRegions()
+                + ChatColor.GRAY + " (chunks indexed: " + regions.getIndex().getChunks() + ", players inside: " + regions.getPlayersInside() + ")");
+        PlayerStateCache states = plugin.getPlayerStates();
+        sender.sendMessage(ChatColor.YELLOW + "Player state: " + ChatColor.WHITE + states.getCached() + " cached"
+                + ChatColor.GRAY + " (updates: " + states.getUpdates() + ", writes: " + states.getWrites() + ")");
+        TickBudget budget = plugin.getTickBudget();
+        sender.sendMessage(ChatColor.YELLOW + "Tick budget: " + ChatColor.WHITE + (budget.isDegraded() ? "degraded" : "normal")
+                + ChatColor.GRAY + " (last tick: " + String.format("%.3f", budget.getLastTickNanos() / 1_000_000.0)
+                + " ms, peak: " + String.format("%.3f", budget.getPeakTickNanos() / 1_000_000.0)
+                + " ms, budget: " + String.format("%.3f", budget.getBudgetNanos() / 1_000_000.0)
+                + " ms, degradations: " + budget.getDegradations() + ", deferred: " + budget.getDeferredTotal()
+                + ", pending: " + budget.getDeferredPending() + ")");
+        sender.sendMessage(ChatColor.YELLOW + "Diagnostics dropped: " + ChatColor.WHITE + plugin.getDiagnostics().getDropped());
+    }
+
+    private void handleExport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("worldtimer.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
+            return;
+        }
+
+        TransferFormat format = args.length >= 2 ? TransferFormat.parse(args[1]) : TransferFormat.JSONL;
+        if (format == null) {
+            sender.sendMessage(ChatColor.RED + "Usage: /worldtimer export [jsonl|csv]");
+            return;
+        }
+        if (!plugin.getDataTransfer().startExport(format, sender)) {
+            sender.sendMessage(ChatColor.RED + "An export or import is already running.");
+            return;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Export started, progress is reported here and in the console.");
+    }
+
+    private void handleImport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("worldtimer.admin")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
+            return;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /worldtimer import <file>");
+            return;
+        }
+        // Only plain file names inside the exports folder
+        String name = args[1];
+        File file = new File(plugin.getDataTransfer().getFolder(), name);
+        if (name.contains("/") || name.contains("\\") || name.startsWith(".") || !file.isFile()) {
+            sender.sendMessage(ChatColor.RED + "No such file in " + plugin.getDataTransfer().getFolder().getPath() + ": " + name);
+            return;
+        }
+        if (TransferFormat.fromFileName(name) == null) {
+            sender.sendMessage(ChatColor.RED + "Expected a .jsonl, .csv, .jsonl.gz or .csv.gz file.");
+            return;
+        }
+        if (!plugin.getDataTransfer().startImport(file, sender)) {
+            sender.sendMessage(ChatColor.RED + "An export or import is already running.");
+            return;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Import started. Online players' active timers are saved over imported rows when they leave.");
+    }
+
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "=== WorldTimer Commands ===");
         sender.sendMessage(ChatColor.YELLOW + "/worldtimer reload" + ChatColor.GRAY + " - Reload config");
@@ -236,12 +339,16 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/worldtimer reset <player> <world>" + ChatColor.GRAY + " - Reset player timer");
         sender.sendMessage(ChatColor.YELLOW + "/worldtimer addtime <player> <world> <time>" + ChatColor.GRAY + " - Add time for player");
         sender.sendMessage(ChatColor.YELLOW + "/worldtimer setcooldown <player> <world> <time>" + ChatColor.GRAY + " - Set player cooldown");
+        sender.sendMessage(ChatColor.YELLOW + "/worldtimer stats" + ChatColor.GRAY + " - View plugin statistics");
+        sender.sendMessage(ChatColor.YELLOW + "/worldtimer export [jsonl|csv]" + ChatColor.GRAY + " - Export stored data");
+        sender.sendMessage(ChatColor.YELLOW + "/worldtimer import <file>" + ChatColor.GRAY + " - Import an export file");
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 1) {
-            return filterStartsWith(args[0], List.of("reload", "status", "reset", "addtime", "setcooldown"));
+            return filterStartsWith(args[0], List.of("reload", "status", "reset", "addtime", "setcooldown", "stats",
+                    "export", "import"));
         }
 
         String sub = args[0].toLowerCase();
@@ -251,6 +358,12 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
                 case "status", "reset", "addtime", "setcooldown" -> {
                     return filterStartsWith(args[1], getOnlinePlayerNames());
                 }
+                case "export" -> {
+                    return filterStartsWith(args[1], List.of("jsonl", "csv"));
+                }
+                case "import" -> {
+                    return filterStartsWith(args[1], getExportFiles());
+                }
             }
         }
 
@@ -280,7 +393,13 @@ public class WorldTimerCommand implements CommandExecutor, TabCompleter {
     }
 
     private List<String> getConfiguredWorlds() {
-        return new ArrayList<>(plugin.getPluginConfig().getWorldConfigs().keySet());
+        return new ArrayList<>(plugin.getPluginConfig().getTimerConfigs().keySet());
+    }
+
+    private List<String> getExportFiles() {
+        String[] names = plugin.getDataTransfer().getFolder().list(
+                (dir, name) -> TransferFormat.fromFileName(name) != null);
+        return names != null ? Arrays.asList(names) : Collections.emptyList();
     }
 
     private List<String> filterStartsWith(String input, List<String> options) {
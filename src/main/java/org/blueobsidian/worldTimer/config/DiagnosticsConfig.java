@@ -0,0 +1,54 @@
+package org.blueobsidian.worldTimer.config;
+
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticCategory;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticLevel;
+
+import java.util.Map;
+
+public class DiagnosticsConfig {
+
+    private final boolean enabled;
+    private final DiagnosticLevel level;
+    private final String fileName;
+    private final int bufferSize;
+    private final Map<DiagnosticCategory, Boolean> categoryEnabled;
+    private final Map<DiagnosticCategory, Integer> sampleEvery;
+
+    public DiagnosticsConfig(boolean enabled, DiagnosticLevel level, String fileName, int bufferSize,
+                             Map<DiagnosticCategory, Boolean> categoryEnabled,
+                             Map<DiagnosticCategory, Integer> sampleEvery) {
+        this.enabled = enabled;
+        this.level = level;
+        this.fileName = fileName;
+        this.bufferSize = bufferSize;
+        this.categoryEnabled = categoryEnabled;
+        this.sampleEvery = sampleEvery;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public DiagnosticLevel getLevel() {
+        return level;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public boolean isCategoryEnabled(DiagnosticCategory category) {
+        return categoryEnabled.getOrDefault(category, true);
+    }
+
+    /**
+     * Returns N where one in every N events of this category is logged.
+     */
+    public int getSampleEvery(DiagnosticCategory category) {
+        return Math.max(1, sampleEvery.getOrDefault(category, 1));
+    }
+}
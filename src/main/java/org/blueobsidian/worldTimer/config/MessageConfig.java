@@ -11,9 +11,10 @@ public class MessageConfig {
     private final String cooldownBypass;
     private final String enter;
     private final String enterUnlimited;
+    private final String display;
 
     public MessageConfig(String prefix, String warn, String expired, String cooldown, String cooldownBypass,
-                         String enter, String enterUnlimited) {
+                         String enter, String enterUnlimited, String display) {
         this.prefix = colorize(prefix);
         this.warn = colorize(warn);
         this.expired = colorize(expired);
@@ -21,6 +22,7 @@ public class MessageConfig {
         this.cooldownBypass = colorize(cooldownBypass);
         this.enter = colorize(enter);
         this.enterUnlimited = colorize(enterUnlimited);
+        this.display = colorize(display);
     }
 
     public String getPrefix() {
@@ -51,13 +53,24 @@ public class MessageConfig {
         return enterUnlimited;
     }
 
+    public String getDisplay() {
+        return display;
+    }
+
     public String format(String template, String world, String timeRemaining, String cooldownRemaining, String playerName) {
+        return prefix + formatWithoutPrefix(template, world, timeRemaining, cooldownRemaining, playerName);
+    }
+
+    /**
+     * Same as {@link #format} but without the chat prefix, for boss bars and action bars.
+     */
+    public String formatWithoutPrefix(String template, String world, String timeRemaining, String cooldownRemaining, String playerName) {
         String msg = template;
         if (world != null) msg = msg.replace("%world%", world);
         if (timeRemaining != null) msg = msg.replace("%time_remaining%", timeRemaining);
         if (cooldownRemaining != null) msg = msg.replace("%cooldown_remaining%", cooldownRemaining);
         if (playerName != null) msg = msg.replace("%player%", playerName);
-        return prefix + msg;
+        return msg;
     }
 
     private static String colorize(String text) {
@@ -1,10 +1,17 @@
 package org.blueobsidian.worldTimer.config;
 
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticCategory;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticLevel;
+import org.blueobsidian.worldTimer.display.DisplayMode;
+import org.blueobsidian.worldTimer.region.RegionIndex;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
 public class PluginConfig {
@@ -12,8 +19,42 @@ public class PluginConfig {
     private final WorldTimer plugin;
     private int tickSeconds;
     private String storageType;
+    private int flatFileFsyncIntervalSeconds;
+    private boolean sqliteShared;
+    private boolean storageVirtualThreads;
+    private int storageMaxConcurrency;
+    private int storageQueueSize;
+    private long storageTimeoutMillis;
     private MessageConfig messageConfig;
+    private DiagnosticsConfig diagnosticsConfig;
+    private long denialDebounceMillis;
+    private long denialMessageIntervalMillis;
+    private boolean historyEnabled;
+    private int historyBufferSize;
+    private int historyFlushIntervalSeconds;
+    private int historyRetentionDays;
+    private int playerStateCheckpointSeconds;
+    private int playerStateRetentionDays;
+    private boolean maintenanceEnabled;
+    private int maintenanceIntervalMinutes;
+    private int maintenanceBatchSize;
+    private long maintenanceBatchPauseMillis;
+    private int maintenanceVacuumPages;
+    private boolean syncEnabled;
+    private String syncChannel;
+    private String syncServerId;
+    private int syncPollIntervalTicks;
+    private int syncRetentionMinutes;
+    private boolean tickBudgetEnabled;
+    private long tickBudgetNanos;
+    private int tickBudgetRecoverTicks;
     private final Map<String, WorldConfig> worldConfigs = new HashMap<>();
+    // Checked in config order when a world has no exact entry
+    private volatile List<WorldPattern> worldPatterns = List.of();
+    // World name (lowercase) -> pattern match, empty if none matched. Cleared on load
+    // and per world on world load/unload, so a lookup is one map hit after the first
+    private final Map<String, Optional<WorldConfig>> resolvedWorlds = new ConcurrentHashMap<>();
+    private final Map<String, RegionConfig> regionConfigs = new HashMap<>();
 
     // MySQL settings
     private String mysqlHost;
@@ -35,12 +76,68 @@ public class PluginConfig {
 
         // Storage
         this.storageType = config.getString("storage.type", "sqlite");
+        this.flatFileFsyncIntervalSeconds = config.getInt("storage.flatfile.fsync-interval-seconds", 5);
+        this.sqliteShared = config.getBoolean("storage.sqlite.shared", false);
+        this.storageVirtualThreads = config.getBoolean("storage.executor.virtual-threads", true);
+        this.storageMaxConcurrency = config.getInt("storage.executor.max-concurrency", 4);
+        this.storageQueueSize = config.getInt("storage.executor.queue-size", 1024);
+        this.storageTimeoutMillis = config.getLong("storage.executor.timeout-millis", 5000);
         this.mysqlHost = config.getString("storage.mysql.host", "localhost");
         this.mysqlPort = config.getInt("storage.mysql.port", 3306);
         this.mysqlDatabase = config.getString("storage.mysql.database", "worldtimer");
         this.mysqlUsername = config.getString("storage.mysql.username", "root");
         this.mysqlPassword = config.getString("storage.mysql.password", "");
 
+        // Cooldown denials
+        this.denialDebounceMillis = config.getLong("cooldown-denial.debounce-millis", 1000);
+        this.denialMessageIntervalMillis = config.getLong("cooldown-denial.message-interval-millis", 3000);
+
+        // Session history
+        this.historyEnabled = config.getBoolean("history.enabled", true);
+        this.historyBufferSize = config.getInt("history.buffer-size", 4096);
+        this.historyFlushIntervalSeconds = config.getInt("history.flush-interval-seconds", 5);
+        this.historyRetentionDays = config.getInt("history.retention-days", 30);
+
+        // Player state write-behind
+        this.playerStateCheckpointSeconds = config.getInt("player-state.checkpoint-seconds", 30);
+        this.playerStateRetentionDays = config.getInt("player-state.retention-days", 90);
+
+        // Background storage maintenance
+        this.maintenanceEnabled = config.getBoolean("maintenance.enabled", true);
+        this.maintenanceIntervalMinutes = config.getInt("maintenance.interval-minutes", 60);
+        this.maintenanceBatchSize = config.getInt("maintenance.batch-size", 500);
+        this.maintenanceBatchPauseMillis = config.getLong("maintenance.batch-pause-millis", 50);
+        this.maintenanceVacuumPages = config.getInt("maintenance.vacuum-pages", 1000);
+
+        // Cross-server sync
+        this.syncEnabled = config.getBoolean("sync.enabled", false);
+        this.syncChannel = config.getString("sync.channel", "database");
+        this.syncServerId = config.getString("sync.server-id", "");
+        this.syncPollIntervalTicks = config.getInt("sync.poll-interval-ticks", 20);
+        this.syncRetentionMinutes = config.getInt("sync.retention-minutes", 10);
+
+        // Main-thread tick budget
+        this.tickBudgetEnabled = config.getBoolean("tick-budget.enabled", true);
+        this.tickBudgetNanos = (long) (config.getDouble("tick-budget.budget-millis", 1.0) * 1_000_000);
+        this.tickBudgetRecoverTicks = config.getInt("tick-budget.recover-after-ticks", 100);
+
+        // Diagnostics
+        Map<DiagnosticCategory, Boolean> categoryEnabled = new EnumMap<>(DiagnosticCategory.class);
+        Map<DiagnosticCategory, Integer> sampleEvery = new EnumMap<>(DiagnosticCategory.class);
+        for (DiagnosticCategory category : DiagnosticCategory.values()) {
+            String path = "diagnostics.categories." + category.getConfigKey();
+            categoryEnabled.put(category, config.getBoolean(path + ".enabled", true));
+            sampleEvery.put(category, config.getInt(path + ".sample-every", 1));
+        }
+        this.diagnosticsConfig = new DiagnosticsConfig(
+                config.getBoolean("diagnostics.enabled", false),
+                DiagnosticLevel.parse(config.getString("diagnostics.level", "debug"), DiagnosticLevel.DEBUG),
+                config.getString("diagnostics.file", "diagnostics.log"),
+                config.getInt("diagnostics.buffer-size", 8192),
+                categoryEnabled,
+                sampleEvery
+        );
+
         // Messages
         this.messageConfig = new MessageConfig(
                 config.getString("messages.prefix", "&8[&bWorldTimer&8] &r"),
@@ -49,42 +146,105 @@ public class PluginConfig {
                 config.getString("messages.cooldown", "&cYou must wait &6%cooldown_remaining% &cbefore re-entering &6%world%&c."),
                 config.getString("messages.cooldown-bypass", "&aYour cooldown for &6%world% &ahas been cleared."),
                 config.getString("messages.enter", "&aWelcome to &6%world%&a! You have &6%time_remaining% &aremaining."),
-                config.getString("messages.enter-unlimited", "&aWelcome to &6%world%&a! You have &6unlimited &atime.")
+                config.getString("messages.enter-unlimited", "&aWelcome to &6%world%&a! You have &6unlimited &atime."),
+                config.getString("messages.display", "&6%world% &7- &e%time_remaining% &7remaining")
         );
 
-        // Worlds
+        // Worlds, by exact name or by a pattern for worlds created on the fly
         worldConfigs.clear();
+        List<WorldPattern> patterns = new ArrayList<>();
         ConfigurationSection worldsSection = config.getConfigurationSection("worlds");
         if (worldsSection != null) {
             for (String worldKey : worldsSection.getKeys(false)) {
                 ConfigurationSection ws = worldsSection.getConfigurationSection(worldKey);
                 if (ws == null) continue;
-
-                List<Long> warnAt = ws.getLongList("warn-at-seconds");
-                if (warnAt.isEmpty()) {
-                    warnAt = ws.getIntegerList("warn-at-seconds").stream()
-                            .map(Integer::longValue)
-                            .collect(Collectors.toList());
+                WorldConfig settings = readTimerSettings(worldKey, ws, "world");
+                String match = ws.getString("match", WorldPattern.isPattern(worldKey) ? worldKey : null);
+                if (match == null) {
+                    worldConfigs.put(worldKey.toLowerCase(), settings);
+                    continue;
                 }
+                try {
+                    patterns.add(WorldPattern.compile(worldKey, match, settings));
+                } catch (PatternSyntaxException e) {
+                    plugin.getLogger().warning("World pattern '" + worldKey + "' is invalid, skipping it: " + e.getDescription());
+                }
+            }
+        }
+        worldPatterns = List.copyOf(patterns);
+        resolvedWorlds.clear();
 
-                WorldConfig wc = new WorldConfig(
-                        worldKey,
-                        ws.getBoolean("enabled", true),
-                        ws.getString("main-world", "world"),
-                        ws.getString("teleport-location", "spawn"),
-                        ws.getLong("default-limit-seconds", 1800),
-                        ws.getLong("default-cooldown-seconds", 600),
-                        ws.getString("limit-permission-prefix", "worldtimer.limit." + worldKey + "."),
-                        ws.getString("cooldown-permission-prefix", "worldtimer.cooldown." + worldKey + "."),
-                        ws.getString("bypass-permission", "worldtimer.bypass." + worldKey),
-                        warnAt,
-                        ws.getStringList("expire-commands")
-                );
-                worldConfigs.put(worldKey.toLowerCase(), wc);
+        // Regions, timed like worlds but keyed by region name
+        regionConfigs.clear();
+        ConfigurationSection regionsSection = config.getConfigurationSection("regions");
+        if (regionsSection != null) {
+            for (String regionKey : regionsSection.getKeys(false)) {
+                ConfigurationSection rs = regionsSection.getConfigurationSection(regionKey);
+                if (rs == null) continue;
+                if (worldConfigs.containsKey(regionKey.toLowerCase()) || matchPattern(regionKey).isPresent()) {
+                    plugin.getLogger().warning("Region '" + regionKey + "' has the same name as a configured world, skipping it.");
+                    continue;
+                }
+                String world = rs.getString("world");
+                int[] from = parseBlock(rs.getString("from"));
+                int[] to = parseBlock(rs.getString("to"));
+                if (world == null || from == null || to == null) {
+                    plugin.getLogger().warning("Region '" + regionKey + "' needs a world and from/to corners as \"x,y,z\", skipping it.");
+                    continue;
+                }
+                WorldConfig settings = readTimerSettings(regionKey, rs, world);
+                RegionConfig region = new RegionConfig(settings, world, from[0], from[1], from[2], to[0], to[1], to[2]);
+                if (region.getChunkCount() > RegionIndex.MAX_INDEXED_CHUNKS) {
+                    plugin.getLogger().warning("Region '" + regionKey + "' covers " + region.getChunkCount()
+                            + " chunks; it is checked on every move in '" + world + "' instead of being indexed by chunk.");
+                }
+                regionConfigs.put(regionKey.toLowerCase(), region);
             }
         }
     }
 
+    private WorldConfig readTimerSettings(String key, ConfigurationSection section, String defaultMainWorld) {
+        List<Long> warnAt = section.getLongList("warn-at-seconds");
+        if (warnAt.isEmpty()) {
+            warnAt = section.getIntegerList("warn-at-seconds").stream()
+                    .map(Integer::longValue)
+                    .collect(Collectors.toList());
+        }
+
+        return new WorldConfig(
+                key,
+                section.getBoolean("enabled", true),
+                section.getString("main-world", defaultMainWorld),
+                section.getString("teleport-location", "spawn"),
+                section.getLong("default-limit-seconds", 1800),
+                section.getLong("default-cooldown-seconds", 600),
+                section.getString("limit-permission-prefix", "worldtimer.limit." + key + "."),
+                section.getString("cooldown-permission-prefix", "worldtimer.cooldown." + key + "."),
+                section.getString("bypass-permission", "worldtimer.bypass." + key),
+                warnAt,
+                section.getStringList("expire-commands"),
+                DisplayMode.parse(section.getString("display", "none"))
+        );
+    }
+
+    /**
+     * Parses a block position written as "x,y,z". Returns null if malformed.
+     */
+    private static int[] parseBlock(String value) {
+        if (value == null) return null;
+        String[] parts = value.split(",");
+        if (parts.length != 3) return null;
+        try {
+            return new int[]{
+                    Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim()),
+                    Integer.parseInt(parts[2].trim())
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     public int getTickSeconds() {
         return tickSeconds;
     }
@@ -93,20 +253,214 @@ public class PluginConfig {
         return storageType;
     }
 
+    public int getFlatFileFsyncIntervalSeconds() {
+        return flatFileFsyncIntervalSeconds;
+    }
+
+    public boolean isSqliteShared() {
+        return sqliteShared;
+    }
+
+    public boolean isStorageVirtualThreads() {
+        return storageVirtualThreads;
+    }
+
+    public int getStorageMaxConcurrency() {
+        return storageMaxConcurrency;
+    }
+
+    public int getStorageQueueSize() {
+        return storageQueueSize;
+    }
+
+    public long getStorageTimeoutMillis() {
+        return storageTimeoutMillis;
+    }
+
+    public long getDenialDebounceMillis() {
+        return denialDebounceMillis;
+    }
+
+    public long getDenialMessageIntervalMillis() {
+        return denialMessageIntervalMillis;
+    }
+
+    public boolean isHistoryEnabled() {
+        return historyEnabled;
+    }
+
+    public int getHistoryBufferSize() {
+        return historyBufferSize;
+    }
+
+    public int getHistoryFlushIntervalSeconds() {
+        return historyFlushIntervalSeconds;
+    }
+
+    public int getHistoryRetentionDays() {
+        return historyRetentionDays;
+    }
+
+    public int getPlayerStateCheckpointSeconds() {
+        return playerStateCheckpointSeconds;
+    }
+
+    public int getPlayerStateRetentionDays() {
+        return playerStateRetentionDays;
+    }
+
+    public boolean isMaintenanceEnabled() {
+        return maintenanceEnabled;
+    }
+
+    public int getMaintenanceIntervalMinutes() {
+        return maintenanceIntervalMinutes;
+    }
+
+    public int getMaintenanceBatchSize() {
+        return maintenanceBatchSize;
+    }
+
+    public long getMaintenanceBatchPauseMillis() {
+        return maintenanceBatchPauseMillis;
+    }
+
+    public int getMaintenanceVacuumPages() {
+        return maintenanceVacuumPages;
+    }
+
+    public boolean isSyncEnabled() {
+        return syncEnabled;
+    }
+
+    public String getSyncChannel() {
+        return syncChannel;
+    }
+
+    public String getSyncServerId() {
+        return syncServerId;
+    }
+
+    public int getSyncPollIntervalTicks() {
+        return syncPollIntervalTicks;
+    }
+
+    public int getSyncRetentionMinutes() {
+        return syncRetentionMinutes;
+    }
+
+    public boolean isTickBudgetEnabled() {
+        return tickBudgetEnabled;
+    }
+
+    public long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    public int getTickBudgetRecoverTicks() {
+        return tickBudgetRecoverTicks;
+    }
+
+    public DiagnosticsConfig getDiagnosticsConfig() {
+        return diagnosticsConfig;
+    }
+
     public MessageConfig getMessageConfig() {
         return messageConfig;
     }
 
+    /**
+     * Returns the worlds configured by exact name plus those resolved from a pattern so far,
+     * keyed by lowercase name.
+     */
     public Map<String, WorldConfig> getWorldConfigs() {
-        return Collections.unmodifiableMap(worldConfigs);
+        if (resolvedWorlds.isEmpty()) {
+            return Collections.unmodifiableMap(worldConfigs);
+        }
+        Map<String, WorldConfig> all = new HashMap<>(worldConfigs);
+        for (Map.Entry<String, Optional<WorldConfig>> entry : resolvedWorlds.entrySet()) {
+            entry.getValue().ifPresent(wc -> all.put(entry.getKey(), wc));
+        }
+        return all;
     }
 
+    public List<WorldPattern> getWorldPatterns() {
+        return worldPatterns;
+    }
+
+    /**
+     * Returns the settings for a world: its exact entry, else the first pattern that
+     * matches it. Pattern results for loaded worlds are cached, so repeat lookups are a
+     * map hit; other names (typos, API calls for worlds that do not exist) are matched
+     * each time rather than filling the cache.
+     */
     public WorldConfig getWorldConfig(String worldName) {
-        return worldConfigs.get(worldName.toLowerCase());
+        String key = worldName.toLowerCase();
+        WorldConfig wc = worldConfigs.get(key);
+        if (wc != null || worldPatterns.isEmpty()) {
+            return wc;
+        }
+        Optional<WorldConfig> resolved = resolvedWorlds.get(key);
+        if (resolved == null) {
+            resolved = matchPattern(worldName);
+            // The world list is only read on the main thread; WorldListener keeps entries in step
+            if (Bukkit.isPrimaryThread() && Bukkit.getWorld(worldName) != null) {
+                resolvedWorlds.put(key, resolved);
+            }
+        }
+        return resolved.orElse(null);
     }
 
     public boolean isWorldConfigured(String worldName) {
-        WorldConfig wc = worldConfigs.get(worldName.toLowerCase());
+        WorldConfig wc = getWorldConfig(worldName);
+        return wc != null && wc.isEnabled();
+    }
+
+    /**
+     * Drops the cached pattern match for a world, so it is resolved again on next use.
+     * Called when a world loads or unloads.
+     */
+    public void forgetWorld(String worldName) {
+        resolvedWorlds.remove(worldName.toLowerCase());
+    }
+
+    private Optional<WorldConfig> matchPattern(String worldName) {
+        for (WorldPattern pattern : worldPatterns) {
+            if (pattern.matches(worldName)) {
+                return Optional.of(pattern.resolve(worldName));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Map<String, RegionConfig> getRegionConfigs() {
+        return Collections.unmodifiableMap(regionConfigs);
+    }
+
+    public RegionConfig getRegionConfig(String regionName) {
+        return regionConfigs.get(regionName.toLowerCase());
+    }
+
+    /**
+     * Returns the settings for a timer key, which is either a world or a region name.
+     */
+    public WorldConfig getTimerConfig(String name) {
+        WorldConfig wc = getWorldConfig(name);
+        return wc != null ? wc : regionConfigs.get(name.toLowerCase());
+    }
+
+    /**
+     * Returns every world and region timer, keyed by lowercase name. Pattern worlds are
+     * included once they have been resolved.
+     */
+    public Map<String, WorldConfig> getTimerConfigs() {
+        Map<String, WorldConfig> all = new HashMap<>(getWorldConfigs());
+        all.putAll(regionConfigs);
+        return all;
+    }
+
+    public boolean isTimerConfigured(String name) {
+        WorldConfig wc = getTimerConfig(name);
         return wc != null && wc.isEnabled();
     }
 
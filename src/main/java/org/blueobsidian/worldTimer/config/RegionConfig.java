@@ -0,0 +1,92 @@
+package org.blueobsidian.worldTimer.config;
+
+import org.bukkit.Location;
+
+import java.util.Objects;
+
+/**
+ * A timer zone covering a cuboid of blocks inside one world. Timer settings are inherited
+ * from {@link WorldConfig}; {@link #getWorldName()} is the region's name, which is also the
+ * key its sessions, cooldowns and stored rows use. {@link #getWorld()} is the world it is in.
+ * Bounds are inclusive block coordinates.
+ */
+public class RegionConfig extends WorldConfig {
+
+    private final String world;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    public RegionConfig(WorldConfig settings, String world, int x1, int y1, int z1, int x2, int y2, int z2) {
+        super(settings.getWorldName(), settings.isEnabled(), settings.getMainWorld(), settings.getTeleportLocation(),
+                settings.getDefaultLimitSeconds(), settings.getDefaultCooldownSeconds(),
+                settings.getLimitPermissionPrefix(), settings.getCooldownPermissionPrefix(),
+                settings.getBypassPermission(), settings.getWarnAtSeconds(), settings.getExpireCommands(),
+                settings.getDisplayMode());
+        this.world = world;
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    public String getWorld() {
+        return world;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * Whether a location's block lies inside the region.
+     */
+    public boolean contains(Location location) {
+        if (location.getWorld() == null || !location.getWorld().getName().equalsIgnoreCase(world)) {
+            return false;
+        }
+        return contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * Returns the number of chunks the region overlaps.
+     */
+    public long getChunkCount() {
+        return ((long) (maxX >> 4) - (minX >> 4) + 1) * ((long) (maxZ >> 4) - (minZ >> 4) + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RegionConfig other) || !super.equals(o)) return false;
+        return world.equalsIgnoreCase(other.world)
+                && minX == other.minX && minY == other.minY && minZ == other.minZ
+                && maxX == other.maxX && maxY == other.maxY && maxZ == other.maxZ;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), world.toLowerCase(), minX, minY, minZ, maxX, maxY, maxZ);
+    }
+}
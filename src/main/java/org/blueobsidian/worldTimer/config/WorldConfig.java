@@ -1,6 +1,9 @@
 package org.blueobsidian.worldTimer.config;
 
+import org.blueobsidian.worldTimer.display.DisplayMode;
+
 import java.util.List;
+import java.util.Objects;
 
 public class WorldConfig {
 
@@ -15,11 +18,13 @@ public class WorldConfig {
     private final String bypassPermission;
     private final List<Long> warnAtSeconds;
     private final List<String> expireCommands;
+    private final DisplayMode displayMode;
 
     public WorldConfig(String worldName, boolean enabled, String mainWorld, String teleportLocation,
                        long defaultLimitSeconds, long defaultCooldownSeconds,
                        String limitPermissionPrefix, String cooldownPermissionPrefix,
-                       String bypassPermission, List<Long> warnAtSeconds, List<String> expireCommands) {
+                       String bypassPermission, List<Long> warnAtSeconds, List<String> expireCommands,
+                       DisplayMode displayMode) {
         this.worldName = worldName;
         this.enabled = enabled;
         this.mainWorld = mainWorld;
@@ -31,6 +36,7 @@ public class WorldConfig {
         this.bypassPermission = bypassPermission;
         this.warnAtSeconds = warnAtSeconds;
         this.expireCommands = expireCommands;
+        this.displayMode = displayMode;
     }
 
     public String getWorldName() {
@@ -76,4 +82,45 @@ public class WorldConfig {
     public List<String> getExpireCommands() {
         return expireCommands;
     }
+
+    public DisplayMode getDisplayMode() {
+        return displayMode;
+    }
+
+    /**
+     * Returns a copy of these settings for another world, e.g. one matched by a {@link WorldPattern}.
+     */
+    public WorldConfig withWorldName(String worldName) {
+        return new WorldConfig(worldName, enabled, mainWorld, teleportLocation, defaultLimitSeconds,
+                defaultCooldownSeconds, limitPermissionPrefix, cooldownPermissionPrefix, bypassPermission,
+                warnAtSeconds, expireCommands, displayMode);
+    }
+
+    /**
+     * Two configs are equal when every setting matches, which lets a reload tell
+     * which worlds actually changed.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WorldConfig other)) return false;
+        return enabled == other.enabled
+                && defaultLimitSeconds == other.defaultLimitSeconds
+                && defaultCooldownSeconds == other.defaultCooldownSeconds
+                && worldName.equalsIgnoreCase(other.worldName)
+                && Objects.equals(mainWorld, other.mainWorld)
+                && Objects.equals(teleportLocation, other.teleportLocation)
+                && Objects.equals(limitPermissionPrefix, other.limitPermissionPrefix)
+                && Objects.equals(cooldownPermissionPrefix, other.cooldownPermissionPrefix)
+                && Objects.equals(bypassPermission, other.bypassPermission)
+                && Objects.equals(warnAtSeconds, other.warnAtSeconds)
+                && Objects.equals(expireCommands, other.expireCommands)
+                && displayMode == other.displayMode;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(worldName.toLowerCase(), enabled, defaultLimitSeconds, defaultCooldownSeconds,
+                limitPermissionPrefix, cooldownPermissionPrefix, bypassPermission);
+    }
 }
@@ -0,0 +1,84 @@
+package org.blueobsidian.worldTimer.config;
+
+import java.util.regex.Pattern;
+
+/**
+ * A {@code worlds:} entry that matches world names by glob or regex instead of by exact
+ * name, for worlds that are created on the fly. Compiled once when the config loads.
+ * Each world it matches gets its own copy of the settings, named after that world, so
+ * sessions, cooldowns and stored rows are kept per world.
+ */
+public final class WorldPattern {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final String key;
+    private final String expression;
+    private final Pattern pattern;
+    private final WorldConfig settings;
+
+    private WorldPattern(String key, String expression, Pattern pattern, WorldConfig settings) {
+        this.key = key;
+        this.expression = expression;
+        this.pattern = pattern;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns true if a world name should be matched as a pattern: it contains glob
+     * wildcards or starts with {@code regex:}.
+     */
+    public static boolean isPattern(String expression) {
+        return expression.startsWith(REGEX_PREFIX) || expression.indexOf('*') >= 0 || expression.indexOf('?') >= 0;
+    }
+
+    /**
+     * Compiles a glob ({@code *} and {@code ?}) or, with the {@code regex:} prefix, a regular
+     * expression. Matching ignores case and must cover the whole world name.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid
+     */
+    public static WorldPattern compile(String key, String expression, WorldConfig settings) {
+        String regex = expression.startsWith(REGEX_PREFIX)
+                ? expression.substring(REGEX_PREFIX.length())
+                : globToRegex(expression);
+        return new WorldPattern(key, expression, Pattern.compile(regex, Pattern.CASE_INSENSITIVE), settings);
+    }
+
+    public boolean matches(String worldName) {
+        return pattern.matcher(worldName).matches();
+    }
+
+    /**
+     * Returns the settings for a world this pattern matched.
+     */
+    public WorldConfig resolve(String worldName) {
+        return settings.withWorldName(worldName);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c != '*' && c != '?') continue;
+            if (i > literalStart) {
+                regex.append(Pattern.quote(glob.substring(literalStart, i)));
+            }
+            regex.append(c == '*' ? ".*" : ".");
+            literalStart = i + 1;
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package org.blueobsidian.worldTimer.diagnostics;
+
+public enum DiagnosticCategory {
+
+    WORLD_CHANGE("world-change"),
+    TELEPORT("teleport"),
+    TIMER("timer"),
+    STORAGE("storage");
+
+    private final String configKey;
+
+    DiagnosticCategory(String configKey) {
+        this.configKey = configKey;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+}
@@ -0,0 +1,21 @@
+package org.blueobsidian.worldTimer.diagnostics;
+
+/**
+ * Verbosity levels for the diagnostics channel, from least to most verbose.
+ */
+public enum DiagnosticLevel {
+
+    OFF,
+    INFO,
+    DEBUG,
+    TRACE;
+
+    public static DiagnosticLevel parse(String input, DiagnosticLevel fallback) {
+        if (input == null) return fallback;
+        try {
+            return valueOf(input.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
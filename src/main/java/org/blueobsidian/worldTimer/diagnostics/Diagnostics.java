@@ -0,0 +1,170 @@
+package org.blueobsidian.worldTimer.diagnostics;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.DiagnosticsConfig;
+import org.blueobsidian.worldTimer.util.RingBuffer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Opt-in debug logging to a separate file. Callers guard with {@link #shouldLog}
+ * before building a message, so a disabled channel costs a single field read.
+ * Entries go through a ring buffer and are written by a background thread,
+ * keeping file I/O off the main thread.
+ */
+public class Diagnostics {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int DRAIN_BATCH = 512;
+    private static final long IDLE_SLEEP_MILLIS = 250;
+
+    private final WorldTimer plugin;
+
+    private volatile boolean enabled;
+    private volatile DiagnosticLevel level = DiagnosticLevel.OFF;
+    private final boolean[] categoryEnabled = new boolean[DiagnosticCategory.values().length];
+    private final int[] sampleEvery = new int[DiagnosticCategory.values().length];
+    private final AtomicLongArray seen = new AtomicLongArray(DiagnosticCategory.values().length);
+
+    private volatile RingBuffer<Entry> buffer;
+    private Writer writer;
+
+    public Diagnostics(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Applies the diagnostics config and starts the writer thread if enabled.
+     */
+    public void start(DiagnosticsConfig config) {
+        stop();
+        for (DiagnosticCategory category : DiagnosticCategory.values()) {
+            categoryEnabled[category.ordinal()] = config.isCategoryEnabled(category);
+            sampleEvery[category.ordinal()] = config.getSampleEvery(category);
+        }
+        level = config.getLevel();
+        if (!config.isEnabled() || level == DiagnosticLevel.OFF) {
+            return;
+        }
+
+        File file = new File(plugin.getDataFolder(), config.getFileName());
+        RingBuffer<Entry> ring = new RingBuffer<>(config.getBufferSize());
+        buffer = ring;
+        writer = new Writer(ring, file);
+        writer.thread.start();
+        enabled = true;
+        plugin.getLogger().info("Diagnostics enabled at level " + level + ", writing to " + file.getName());
+    }
+
+    /**
+     * Stops the writer thread after it has written everything buffered.
+     */
+    public void stop() {
+        enabled = false;
+        Writer current = writer;
+        writer = null;
+        buffer = null;
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * Returns true if an event of this category and level should be logged.
+     * Applies sampling, so each call counts as one event.
+     */
+    public boolean shouldLog(DiagnosticCategory category, DiagnosticLevel eventLevel) {
+        if (!enabled) {
+            return false;
+        }
+        int index = category.ordinal();
+        if (eventLevel.compareTo(level) > 0 || !categoryEnabled[index]) {
+            return false;
+        }
+        int every = sampleEvery[index];
+        return every <= 1 || seen.getAndIncrement(index) % every == 0;
+    }
+
+    /**
+     * Queues a message. Dropped silently if the buffer is full.
+     */
+    public void log(DiagnosticCategory category, DiagnosticLevel eventLevel, String message) {
+        RingBuffer<Entry> ring = buffer;
+        if (ring != null) {
+            ring.offer(new Entry(System.currentTimeMillis(), category, eventLevel, message));
+        }
+    }
+
+    public long getDropped() {
+        RingBuffer<Entry> ring = buffer;
+        return ring != null ? ring.getDropped() : 0;
+    }
+
+    private final class Writer implements Runnable {
+
+        private final RingBuffer<Entry> ring;
+        private final File file;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Writer(RingBuffer<Entry> ring, File file) {
+            this.ring = ring;
+            this.file = file;
+            this.thread = new Thread(this, "WorldTimer-Diagnostics");
+            this.thread.setDaemon(true);
+        }
+
+        private void shutdown() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Entry> batch = new ArrayList<>(DRAIN_BATCH);
+            try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                while (true) {
+                    if (ring.drainTo(batch, DRAIN_BATCH) == 0) {
+                        out.flush();
+                        if (!running) break;
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_SLEEP_MILLIS));
+                        continue;
+                    }
+                    for (Entry entry : batch) {
+                        out.write(TIMESTAMP.format(Instant.ofEpochMilli(entry.time())));
+                        out.write(" [" + entry.level() + "] [" + entry.category().getConfigKey() + "] ");
+                        out.write(entry.message());
+                        out.newLine();
+                    }
+                    batch.clear();
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Diagnostics writer stopped", e);
+            }
+        }
+    }
+
+    private record Entry(long time, DiagnosticCategory category, DiagnosticLevel level, String message) {
+    }
+}
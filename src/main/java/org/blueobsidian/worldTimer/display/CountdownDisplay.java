@@ -0,0 +1,185 @@
+package org.blueobsidian.worldTimer.display;
+
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.MessageConfig;
+import org.blueobsidian.worldTimer.config.RegionConfig;
+import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.util.TimeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Live countdown shown to players in timed worlds, as a boss bar or action bar.
+ * Driven by {@link org.blueobsidian.worldTimer.timer.TimerManager} on the main thread.
+ * Each player keeps one reusable state object (and boss bar); text is only rebuilt and
+ * sent when the remaining time changes, and bar progress only when it moves a visible step.
+ * <p>
+ * A player can be timed in a world and a region inside it at once. The display belongs to
+ * one of those sessions at a time: a region takes it over from a world, otherwise the first
+ * one keeps it until it hides, and only the owner's updates and hides touch it.
+ */
+public class CountdownDisplay {
+
+    // Boss bar progress is sent in steps of 1/PROGRESS_STEPS
+    private static final int PROGRESS_STEPS = 100;
+
+    private final WorldTimer plugin;
+    private final Map<UUID, DisplayState> states = new HashMap<>();
+
+    public CountdownDisplay(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Shows or refreshes the countdown for a player in a timed world.
+     */
+    public void update(Player player, WorldConfig worldConfig, long remaining, long limit) {
+        DisplayMode mode = worldConfig.getDisplayMode();
+        if (mode == DisplayMode.NONE || limit <= 0) {
+            hide(player, worldConfig.getWorldName());
+            return;
+        }
+        // Refreshes are skipped while over the tick budget; the next one after recovery catches up
+        if (plugin.getTickBudget().isDegraded()) {
+            return;
+        }
+
+        DisplayState state = states.computeIfAbsent(player.getUniqueId(), uuid -> new DisplayState());
+        boolean region = worldConfig instanceof RegionConfig;
+        if (!worldConfig.getWorldName().equalsIgnoreCase(state.worldName)) {
+            // Shown for another session; only a region takes it from a world
+            if (state.worldName != null && (state.region || !region)) {
+                return;
+            }
+            state.hide();
+            state.worldName = worldConfig.getWorldName();
+            state.region = region;
+        }
+        if (state.mode != mode) {
+            state.hide();
+            state.mode = mode;
+        }
+
+        remaining = Math.max(0, remaining);
+        if (remaining == state.lastRemaining && limit == state.lastLimit) {
+            return; // nothing visible changed
+        }
+        state.lastRemaining = remaining;
+        state.lastLimit = limit;
+
+        MessageConfig msg = plugin.getPluginConfig().getMessageConfig();
+        String text = msg.formatWithoutPrefix(msg.getDisplay(), state.worldName,
+                TimeUtil.formatTime(remaining), null, player.getName());
+
+        if (mode == DisplayMode.ACTIONBAR) {
+            player.spigot().sendMessage(ChatMessageType.ACTION_BAR, TextComponent.fromLegacyText(text));
+            return;
+        }
+
+        int step = (int) Math.min(PROGRESS_STEPS, remaining * PROGRESS_STEPS / limit);
+        if (state.bossBar == null) {
+            state.bossBar = Bukkit.createBossBar(text, colorFor(step), BarStyle.SOLID);
+            state.bossBar.setProgress((double) step / PROGRESS_STEPS);
+            state.bossBar.addPlayer(player);
+            state.lastText = text;
+            state.lastStep = step;
+            return;
+        }
+        if (!state.bossBar.isVisible()) {
+            state.bossBar.setVisible(true);
+        }
+        if (!text.equals(state.lastText)) {
+            state.bossBar.setTitle(text);
+            state.lastText = text;
+        }
+        if (step != state.lastStep) {
+            BarColor color = colorFor(step);
+            if (color != colorFor(state.lastStep)) {
+                state.bossBar.setColor(color);
+            }
+            state.bossBar.setProgress((double) step / PROGRESS_STEPS);
+            state.lastStep = step;
+        }
+    }
+
+    /**
+     * Hides the countdown when a player's session in the given world or region ends, if that
+     * session is the one showing it. The display state and boss bar are kept for reuse.
+     */
+    public void hide(Player player, String worldName) {
+        DisplayState state = states.get(player.getUniqueId());
+        if (state != null && worldName.equalsIgnoreCase(state.worldName)) {
+            state.hide();
+            state.worldName = null;
+            state.region = false;
+        }
+    }
+
+    /**
+     * Returns the player's boss bar, or null if none has been created.
+     */
+    public BossBar getBossBar(UUID uuid) {
+        DisplayState state = states.get(uuid);
+        return state != null ? state.bossBar : null;
+    }
+
+    /**
+     * Discards a player's display state. Called on quit.
+     */
+    public void remove(UUID uuid) {
+        DisplayState state = states.remove(uuid);
+        if (state != null && state.bossBar != null) {
+            state.bossBar.removeAll();
+        }
+    }
+
+    /**
+     * Removes every countdown. Called on shutdown and reload.
+     */
+    public void clearAll() {
+        for (DisplayState state : states.values()) {
+            if (state.bossBar != null) {
+                state.bossBar.removeAll();
+            }
+        }
+        states.clear();
+    }
+
+    private static BarColor colorFor(int step) {
+        if (step > PROGRESS_STEPS / 2) return BarColor.GREEN;
+        if (step > PROGRESS_STEPS / 5) return BarColor.YELLOW;
+        return BarColor.RED;
+    }
+
+    private static final class DisplayState {
+
+        private DisplayMode mode = DisplayMode.NONE;
+        // Session the display belongs to; null while nothing is shown
+        private String worldName;
+        private boolean region;
+        private BossBar bossBar;
+        private String lastText;
+        private long lastRemaining = -1;
+        private long lastLimit = -1;
+        private int lastStep = -1;
+
+        private void hide() {
+            if (bossBar != null && bossBar.isVisible()) {
+                bossBar.setVisible(false);
+            }
+            lastText = null;
+            lastRemaining = -1;
+            lastLimit = -1;
+            lastStep = -1;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.blueobsidian.worldTimer.display;
+
+public enum DisplayMode {
+
+    NONE,
+    BOSSBAR,
+    ACTIONBAR;
+
+    public static DisplayMode parse(String input) {
+        if (input == null) return NONE;
+        return switch (input.trim().toLowerCase()) {
+            case "bossbar", "boss-bar" -> BOSSBAR;
+            case "actionbar", "action-bar" -> ACTIONBAR;
+            default -> NONE;
+        };
+    }
+}
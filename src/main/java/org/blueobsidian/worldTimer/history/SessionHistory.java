@@ -0,0 +1,149 @@
+package org.blueobsidian.worldTimer.history;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticCategory;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticLevel;
+import org.blueobsidian.worldTimer.diagnostics.Diagnostics;
+import org.blueobsidian.worldTimer.storage.SessionRecord;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.util.RingBuffer;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records each visit to a timed world into the session history table.
+ * The main thread only touches an in-memory ring buffer; records are written
+ * in batched multi-row inserts and old rows pruned on an async task.
+ */
+public class SessionHistory {
+
+    // Rows per multi-row INSERT, keeps well under SQLite's bound parameter limit
+    private static final int BATCH_SIZE = 100;
+    private static final long PRUNE_INTERVAL_SECONDS = 3600;
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+    private final RingBuffer<SessionRecord> buffer;
+    // Sessions currently in progress: key = "uuid:world"
+    private final Map<String, OpenSession> openSessions = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long retentionSeconds;
+    private BukkitTask flushTask;
+    private long lastPruneAt;
+
+    public SessionHistory(WorldTimer plugin, StorageManager storage, int bufferSize) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.buffer = new RingBuffer<>(bufferSize);
+    }
+
+    /**
+     * (Re)applies history settings from the config and (re)starts the flush task.
+     */
+    public void start() {
+        stopTask();
+        PluginConfig config = plugin.getPluginConfig();
+        enabled = config.isHistoryEnabled();
+        retentionSeconds = config.getHistoryRetentionDays() * 86400L;
+        if (!enabled) {
+            openSessions.clear();
+            return;
+        }
+        long intervalTicks = Math.max(1, config.getHistoryFlushIntervalSeconds()) * 20L;
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::flushAndPrune, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stops the flush task and writes everything still buffered. Called on shutdown.
+     */
+    public void stop() {
+        stopTask();
+        flush();
+    }
+
+    /**
+     * Marks the start of a session. Called on the main thread when tracking begins.
+     */
+    public void open(UUID uuid, String worldName, long secondsUsed, long limit) {
+        if (!enabled) return;
+        openSessions.put(key(uuid, worldName),
+                new OpenSession(plugin.getClock().seconds(), secondsUsed, limit));
+    }
+
+    /**
+     * Ends a session and queues its record. Does nothing if no session was open.
+     */
+    public void close(UUID uuid, String worldName, long secondsUsed, SessionRecord.EndReason reason) {
+        if (!enabled) return;
+        OpenSession session = openSessions.remove(key(uuid, worldName));
+        if (session == null) return;
+        buffer.offer(new SessionRecord(
+                uuid,
+                worldName.toLowerCase(),
+                session.enteredAt,
+                plugin.getClock().seconds(),
+                Math.max(0, secondsUsed - session.secondsAtEntry),
+                session.limit,
+                reason
+        ));
+    }
+
+    public int getBuffered() {
+        return buffer.size();
+    }
+
+    public long getDropped() {
+        return buffer.getDropped();
+    }
+
+    private void flushAndPrune() {
+        // Hold writes while the main thread is over budget, unless the buffer is filling up
+        if (plugin.getTickBudget().isDegraded() && buffer.size() < buffer.capacity() / 2) {
+            return;
+        }
+        flush();
+        long now = plugin.getClock().seconds();
+        if (retentionSeconds > 0 && now - lastPruneAt >= PRUNE_INTERVAL_SECONDS) {
+            lastPruneAt = now;
+            int pruned = storage.pruneSessionHistory(now - retentionSeconds);
+            if (pruned > 0) {
+                plugin.getLogger().info("Pruned " + pruned + " session history row(s) past retention.");
+            }
+        }
+    }
+
+    private synchronized void flush() {
+        List<SessionRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+            storage.appendSessionHistory(batch);
+            Diagnostics diagnostics = plugin.getDiagnostics();
+            if (diagnostics.shouldLog(DiagnosticCategory.STORAGE, DiagnosticLevel.TRACE)) {
+                diagnostics.log(DiagnosticCategory.STORAGE, DiagnosticLevel.TRACE,
+                        "Wrote " + batch.size() + " session history row(s)");
+            }
+            batch.clear();
+        }
+    }
+
+    private void stopTask() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    private static String key(UUID uuid, String worldName) {
+        return uuid + ":" + worldName.toLowerCase();
+    }
+
+    private record OpenSession(long enteredAt, long secondsAtEntry, long limit) {
+    }
+}
@@ -0,0 +1,118 @@
+package org.blueobsidian.worldTimer.listener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the last cooldown denial per player so repeated teleport attempts
+ * (e.g. standing in a portal) are rejected without re-checking cooldowns,
+ * and the cooldown message is not resent on every attempt.
+ * Callers pass the current time in epoch milliseconds, read from the plugin's clock.
+ */
+public class CooldownDenialCache {
+
+    private final Map<UUID, Denial> denials = new ConcurrentHashMap<>();
+
+    private long debounceMillis;
+    private long messageIntervalMillis;
+
+    private final AtomicLong denied = new AtomicLong();
+    private final AtomicLong suppressedAttempts = new AtomicLong();
+    private final AtomicLong suppressedMessages = new AtomicLong();
+
+    public CooldownDenialCache(long debounceMillis, long messageIntervalMillis) {
+        configure(debounceMillis, messageIntervalMillis);
+    }
+
+    public void configure(long debounceMillis, long messageIntervalMillis) {
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.messageIntervalMillis = Math.max(0, messageIntervalMillis);
+    }
+
+    /**
+     * Returns the cached denial if the player was recently denied entry to this world
+     * and neither the cooldown nor the debounce window has ended yet, otherwise null.
+     */
+    public Denial getActive(UUID uuid, String worldName, long now) {
+        Denial denial = denials.get(uuid);
+        if (denial == null || !denial.worldName.equalsIgnoreCase(worldName)) {
+            return null;
+        }
+        if (now >= denial.validUntil) {
+            return null;
+        }
+        suppressedAttempts.incrementAndGet();
+        return denial;
+    }
+
+    /**
+     * Records a denial after a full cooldown check. Message rate limiting carries over
+     * from a previous denial for the same world.
+     */
+    public Denial record(UUID uuid, String worldName, long cooldownRemainingSeconds, long now) {
+        long cooldownEnd = now + cooldownRemainingSeconds * 1000;
+        Denial previous = denials.get(uuid);
+        long lastMessage = previous != null && previous.worldName.equalsIgnoreCase(worldName)
+                ? previous.lastMessageAt : 0;
+        Denial denial = new Denial(worldName, cooldownEnd, Math.min(cooldownEnd, now + debounceMillis), lastMessage);
+        denials.put(uuid, denial);
+        denied.incrementAndGet();
+        return denial;
+    }
+
+    /**
+     * Returns true if the cooldown message should be sent for this denial now,
+     * and marks it as sent. Otherwise counts the message as suppressed.
+     */
+    public boolean shouldNotify(Denial denial, long now) {
+        synchronized (denial) {
+            if (now - denial.lastMessageAt >= messageIntervalMillis) {
+                denial.lastMessageAt = now;
+                return true;
+            }
+        }
+        suppressedMessages.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Forgets any denial for a player, e.g. after their cooldown was changed or on quit.
+     */
+    public void invalidate(UUID uuid) {
+        denials.remove(uuid);
+    }
+
+    public long getDenied() {
+        return denied.get();
+    }
+
+    public long getSuppressedAttempts() {
+        return suppressedAttempts.get();
+    }
+
+    public long getSuppressedMessages() {
+        return suppressedMessages.get();
+    }
+
+    public static final class Denial {
+
+        private final String worldName;
+        private final long cooldownEnd; // epoch millis
+        private final long validUntil; // epoch millis
+        private long lastMessageAt;
+
+        private Denial(String worldName, long cooldownEnd, long validUntil, long lastMessageAt) {
+            this.worldName = worldName;
+            this.cooldownEnd = cooldownEnd;
+            this.validUntil = validUntil;
+            this.lastMessageAt = lastMessageAt;
+        }
+
+        public long getCooldownRemainingSeconds(long now) {
+            long remaining = cooldownEnd - now;
+            return Math.max(0, (remaining + 999) / 1000);
+        }
+    }
+}
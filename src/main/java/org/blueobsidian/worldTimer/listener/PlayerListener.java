@@ -1,11 +1,19 @@
 package org.blueobsidian.worldTimer.listener;
 
 import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.MessageConfig;
 import org.blueobsidian.worldTimer.config.PluginConfig;
 import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticCategory;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticLevel;
+import org.blueobsidian.worldTimer.diagnostics.Diagnostics;
+import org.blueobsidian.worldTimer.state.PlayerStateCache;
 import org.blueobsidian.worldTimer.storage.PlayerTimerData;
 import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.timer.SessionSnapshot;
+import org.blueobsidian.worldTimer.timer.TickBudget;
 import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.blueobsidian.worldTimer.util.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -16,68 +24,155 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
 public class PlayerListener implements Listener {
 
     private final WorldTimer plugin;
     private final TimerManager timerManager;
     private final StorageManager storage;
+    private final PlayerStateCache playerStates;
+    private final CooldownDenialCache denialCache;
 
-    public PlayerListener(WorldTimer plugin, TimerManager timerManager, StorageManager storage) {
+    public PlayerListener(WorldTimer plugin, TimerManager timerManager, StorageManager storage,
+                          PlayerStateCache playerStates, CooldownDenialCache denialCache) {
         this.plugin = plugin;
         this.timerManager = timerManager;
         this.storage = storage;
+        this.playerStates = playerStates;
+        this.denialCache = denialCache;
     }
 
+    /**
+     * Join pipeline: the last world and any timer rows the decision needs are loaded on the
+     * storage executor, and the current world is recorded there too. One main-thread stage
+     * then resolves permissions once, sends expired or cooling-down players back, and
+     * registers the session with the data already loaded. Players who quit before the
+     * main-thread stage are skipped.
+     */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        PluginConfig config = plugin.getPluginConfig();
+        UUID uuid = player.getUniqueId();
+        String joinWorld = player.getWorld().getName();
+        // Config is only read on the main thread; a reload may be rebuilding it meanwhile
+        String timedJoinWorld = plugin.getPluginConfig().isWorldConfigured(joinWorld) ? joinWorld.toLowerCase() : null;
+
+        CompletableFuture<JoinPrefetch> prefetch = plugin.getStorageExecutor().submit("join", () -> {
+            String lastWorld = playerStates.load(uuid);
+            Map<String, PlayerTimerData> data = new HashMap<>();
+            if (timedJoinWorld != null) {
+                data.put(timedJoinWorld, storage.loadData(uuid, timedJoinWorld));
+            }
+            // Whether the last world is timed is only known here after loading it, so its row
+            // is read regardless; the main-thread stage ignores it if the world is not timed
+            if (lastWorld != null && !data.containsKey(lastWorld.toLowerCase())) {
+                data.put(lastWorld.toLowerCase(), storage.loadData(uuid, lastWorld));
+            }
+            if (Bukkit.getPlayer(uuid) == null) {
+                // Quit before or during this task: the quit recorded the world already, and the
+                // load above claimed the state again, so it is released here or it would stay cached
+                playerStates.release(uuid);
+            } else {
+                playerStates.setLastWorld(uuid, joinWorld);
+            }
+            return new JoinPrefetch(lastWorld, data);
+        });
+
+        prefetch.whenComplete((result, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Join prefetch failed for " + player.getName()
+                        + ", loading on the main thread instead", error);
+            }
+            try {
+                // The continuation always runs at least one tick after the join, so the player is fully loaded
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getTickBudget().measure(
+                        () -> completeJoin(player, error == null ? result : null)));
+            } catch (RuntimeException e) {
+                // Plugin is disabling
+            }
+        });
+    }
 
-        // Delay by 1 tick to ensure the player is fully loaded
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            if (!player.isOnline()) return;
+    /**
+     * Main-thread stage of the join pipeline. A null prefetch means it failed and
+     * everything is loaded here instead.
+     */
+    private void completeJoin(Player player, JoinPrefetch prefetch) {
+        // Quit (or quit and rejoined as a new Player object) while loading
+        if (!player.isOnline() || Bukkit.getPlayer(player.getUniqueId()) != player) return;
+
+        if (prefetch == null) {
+            prefetch = new JoinPrefetch(playerStates.load(player.getUniqueId()), Map.of());
+            playerStates.setLastWorld(player.getUniqueId(), player.getWorld().getName());
+        }
 
-            String currentWorld = player.getWorld().getName();
+        PluginConfig config = plugin.getPluginConfig();
+        String currentWorld = player.getWorld().getName();
+        long currentLimit = SessionSnapshot.UNKNOWN_LIMIT;
 
-            // Check if last known world was a limited world
-            String lastWorld = storage.loadLastWorld(player.getUniqueId());
-            if (lastWorld != null && config.isWorldConfigured(lastWorld)) {
-                WorldConfig wc = config.getWorldConfig(lastWorld);
-                if (wc != null && !player.hasPermission(wc.getBypassPermission())) {
-                    PlayerTimerData data = storage.loadData(player.getUniqueId(), lastWorld);
+        // Check if last known world was a limited world
+        String lastWorld = prefetch.lastWorld();
+        if (lastWorld != null && config.isWorldConfigured(lastWorld)) {
+            WorldConfig wc = config.getWorldConfig(lastWorld);
+            if (wc != null && !player.hasPermission(wc.getBypassPermission())) {
+                PlayerTimerData data = prefetch.data().get(lastWorld.toLowerCase());
+                if (data == null) {
+                    data = storage.loadData(player.getUniqueId(), lastWorld);
+                }
 
-                    // Check if timer expired or cooldown active
-                    long limit = plugin.getPermissionResolver().resolveLimit(player, wc);
-                    boolean expired = limit != -1 && data.getSecondsUsed() >= limit;
+                // Check if timer expired or cooldown active
+                long limit = plugin.getPermissionResolver().resolveLimit(player, wc);
+                boolean expired = limit != -1 && data.getSecondsUsed() >= limit;
 
-                    if (expired || data.isCooldownActive()) {
-                        timerManager.teleportToMainWorld(player, wc);
-                        return;
-                    }
+                if (expired || timerManager.getCooldownRemainingSeconds(player.getUniqueId(), lastWorld) > 0) {
+                    timerManager.teleportToMainWorld(player, wc);
+                    return;
+                }
+                if (lastWorld.equalsIgnoreCase(currentWorld)) {
+                    currentLimit = limit;
                 }
             }
+        }
 
-            // If current world is configured, start tracking
-            if (config.isWorldConfigured(currentWorld)) {
-                WorldConfig wc = config.getWorldConfig(currentWorld);
-                if (wc != null) {
-                    timerManager.handleWorldEntry(player, wc);
-                }
+        // If current world is configured, start tracking
+        if (config.isWorldConfigured(currentWorld)) {
+            WorldConfig wc = config.getWorldConfig(currentWorld);
+            if (wc != null) {
+                // Null if the player changed world since the prefetch; handleWorldEntry loads it then
+                timerManager.handleWorldEntry(player, wc, prefetch.data().get(currentWorld.toLowerCase()), currentLimit);
             }
+        }
 
-            // Save current world
-            storage.saveLastWorld(player.getUniqueId(), currentWorld);
-        }, 1L);
+        // Regions the player logged in inside of
+        plugin.getRegionTracker().update(player, player.getLocation());
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getTickBudget().measure(() -> handleQuit(event));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.getTickBudget().measure(() -> handleWorldChange(event));
+    }
+
+    private void handleQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         String worldName = player.getWorld().getName();
         PluginConfig config = plugin.getPluginConfig();
 
-        // Save last world
-        storage.saveLastWorld(player.getUniqueId(), worldName);
+        // Remember last world, written with the rest of the player's state below
+        playerStates.setLastWorld(player.getUniqueId(), worldName);
+        denialCache.invalidate(player.getUniqueId());
+
+        // End region sessions, then the world session
+        plugin.getRegionTracker().exitAll(player);
 
         // If in a configured world, save and stop tracking
         if (config.isWorldConfigured(worldName)) {
@@ -89,26 +184,39 @@ public class PlayerListener implements Listener {
                 timerManager.teleportToMainWorld(player, wc);
             }
         }
+
+        // Drop published state once the player is gone
+        timerManager.getSnapshots().removePlayer(player.getUniqueId());
+        plugin.getCountdownDisplay().remove(player.getUniqueId());
+
+        // Write last world and return location in the background
+        playerStates.release(player.getUniqueId());
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onWorldChange(PlayerChangedWorldEvent event) {
+    private void handleWorldChange(PlayerChangedWorldEvent event) {
         Player player = event.getPlayer();
         PluginConfig config = plugin.getPluginConfig();
 
         String fromWorld = event.getFrom().getName();
         String toWorld = player.getWorld().getName();
 
-        plugin.getLogger().info("[DEBUG] " + player.getName() + " changed world: '" + fromWorld + "' -> '" + toWorld + "'");
-        plugin.getLogger().info("[DEBUG] fromWorld configured: " + config.isWorldConfigured(fromWorld) + ", toWorld configured: " + config.isWorldConfigured(toWorld));
+        boolean fromConfigured = config.isWorldConfigured(fromWorld);
+        boolean toConfigured = config.isWorldConfigured(toWorld);
+
+        Diagnostics diagnostics = plugin.getDiagnostics();
+        if (diagnostics.shouldLog(DiagnosticCategory.WORLD_CHANGE, DiagnosticLevel.DEBUG)) {
+            diagnostics.log(DiagnosticCategory.WORLD_CHANGE, DiagnosticLevel.DEBUG, player.getName()
+                    + " changed world: '" + fromWorld + "' (configured: " + fromConfigured + ") -> '"
+                    + toWorld + "' (configured: " + toConfigured + ")");
+        }
 
         // Stop tracking old world if it was configured
-        if (config.isWorldConfigured(fromWorld)) {
+        if (fromConfigured) {
             timerManager.handleWorldExit(player, fromWorld);
         }
 
         // Start tracking new world if configured
-        if (config.isWorldConfigured(toWorld)) {
+        if (toConfigured) {
             WorldConfig wc = config.getWorldConfig(toWorld);
             if (wc != null) {
                 timerManager.handleWorldEntry(player, wc);
@@ -117,17 +225,20 @@ public class PlayerListener implements Listener {
         }
 
         // Update last known world
-        storage.saveLastWorld(player.getUniqueId(), toWorld);
+        playerStates.setLastWorld(player.getUniqueId(), toWorld);
     }
 
     /**
      * Handles cross-world teleports into a limited world:
-     * 1. Blocks the teleport if the player is on cooldown.
+     * 1. Blocks the teleport if the player is on cooldown. Repeated attempts within the
+     *    debounce window reuse the previous denial and rate-limit the message.
      * 2. Saves the player's current location as their return point before entry.
      * Wrapped in try-catch for compatibility with plugins like CMI that may corrupt location data.
      */
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerTeleport(PlayerTeleportEvent event) {
+        TickBudget budget = plugin.getTickBudget();
+        long begunAt = budget.begin();
         try {
             if (event.getFrom() == null || event.getFrom().getWorld() == null
                     || event.getTo() == null || event.getTo().getWorld() == null) {
@@ -153,25 +264,53 @@ public class PlayerListener implements Listener {
                 return;
             }
 
+            // Repeated attempt for a destination we just denied; only once the world is
+            // known to be timed and the player not exempt, so a reload or a granted bypass
+            // takes effect straight away
+            long now = plugin.getClock().millis();
+            CooldownDenialCache.Denial denial = denialCache.getActive(player.getUniqueId(), toWorld, now);
+            if (denial != null) {
+                event.setCancelled(true);
+                if (denialCache.shouldNotify(denial, now)) {
+                    sendCooldownMessage(player, toWorld, denial.getCooldownRemainingSeconds(now));
+                }
+                return;
+            }
+
             // Block entry if cooldown is active
-            PlayerTimerData data = storage.loadData(player.getUniqueId(), toWorld);
-            if (data.isCooldownActive()) {
+            long cooldownRemaining = timerManager.getCooldownRemainingSeconds(player.getUniqueId(), toWorld);
+            if (cooldownRemaining > 0) {
                 event.setCancelled(true);
-                String cooldownStr = org.blueobsidian.worldTimer.util.TimeUtil.formatTime(data.getCooldownRemainingSeconds());
-                player.sendMessage(config.getMessageConfig().format(
-                        config.getMessageConfig().getCooldown(),
-                        toWorld, null, cooldownStr, player.getName()
-                ));
+                Diagnostics diagnostics = plugin.getDiagnostics();
+                if (diagnostics.shouldLog(DiagnosticCategory.TELEPORT, DiagnosticLevel.DEBUG)) {
+                    diagnostics.log(DiagnosticCategory.TELEPORT, DiagnosticLevel.DEBUG, "Denied " + player.getName()
+                            + " entry to '" + toWorld + "', cooldown " + cooldownRemaining + "s remaining");
+                }
+                denial = denialCache.record(player.getUniqueId(), toWorld, cooldownRemaining, now);
+                if (denialCache.shouldNotify(denial, now)) {
+                    sendCooldownMessage(player, toWorld, cooldownRemaining);
+                }
                 return;
             }
 
             // Save the player's current location as their return point
             org.bukkit.Location fromLoc = event.getFrom();
             if (fromLoc != null && fromLoc.getWorld() != null) {
-                storage.saveReturnLocation(player.getUniqueId(), fromLoc);
+                playerStates.setReturnLocation(player.getUniqueId(), fromLoc);
             }
         } catch (Exception e) {
             plugin.getLogger().warning("[WorldTimer] Error in teleport handler (possibly caused by another plugin): " + e.getMessage());
+        } finally {
+            budget.end(begunAt);
         }
     }
+
+    private record JoinPrefetch(String lastWorld, Map<String, PlayerTimerData> data) {
+    }
+
+    private void sendCooldownMessage(Player player, String worldName, long cooldownRemaining) {
+        MessageConfig msg = plugin.getPluginConfig().getMessageConfig();
+        String cooldownStr = TimeUtil.formatTime(cooldownRemaining);
+        player.sendMessage(msg.format(msg.getCooldown(), worldName, null, cooldownStr, player.getName()));
+    }
 }
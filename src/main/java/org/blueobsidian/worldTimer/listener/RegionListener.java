@@ -0,0 +1,88 @@
+package org.blueobsidian.worldTimer.listener;
+
+import org.blueobsidian.worldTimer.region.RegionTracker;
+import org.blueobsidian.worldTimer.timer.TickBudget;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+/**
+ * Feeds player movement into the {@link RegionTracker}. Moves within the same block
+ * (looking around, small steps) are dropped before any lookup, and moves into chunks
+ * without regions return after one index lookup. Entry into a region on cooldown is
+ * cancelled at HIGH; sessions are updated at MONITOR once the move is final. Time spent
+ * past the same-block filter counts against the {@link TickBudget}.
+ * Joins and quits are handled by {@link PlayerListener}.
+ */
+public class RegionListener implements Listener {
+
+    private final RegionTracker tracker;
+    private final TickBudget budget;
+
+    public RegionListener(RegionTracker tracker, TickBudget budget) {
+        this.tracker = tracker;
+        this.budget = budget;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onMoveCheck(PlayerMoveEvent event) {
+        if (isSameBlock(event.getFrom(), event.getTo())) return;
+        checkEntry(event, event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        if (isSameBlock(event.getFrom(), event.getTo())) return;
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onTeleportCheck(PlayerTeleportEvent event) {
+        if (event.getTo() == null || event.getTo().getWorld() == null) return;
+        checkEntry(event, event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() == null || event.getTo().getWorld() == null) return;
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    private void checkEntry(PlayerMoveEvent event, Location to) {
+        long begunAt = budget.begin();
+        try {
+            if (tracker.isEntryBlocked(event.getPlayer(), to)) {
+                event.setCancelled(true);
+            }
+        } finally {
+            budget.end(begunAt);
+        }
+    }
+
+    private void update(Player player, Location to) {
+        long begunAt = budget.begin();
+        try {
+            tracker.update(player, to);
+        } finally {
+            budget.end(begunAt);
+        }
+    }
+
+    private static boolean isSameBlock(Location from, Location to) {
+        return to == null
+                || (from.getBlockX() == to.getBlockX()
+                && from.getBlockY() == to.getBlockY()
+                && from.getBlockZ() == to.getBlockZ()
+                && from.getWorld() == to.getWorld());
+    }
+}
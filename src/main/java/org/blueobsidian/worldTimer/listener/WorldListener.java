@@ -0,0 +1,32 @@
+package org.blueobsidian.worldTimer.listener;
+
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Keeps the world pattern cache in {@link PluginConfig} in step with the server's worlds.
+ * A world that loads or unloads is resolved again on next use, so worlds created and
+ * deleted on the fly do not pile up in the cache.
+ */
+public class WorldListener implements Listener {
+
+    private final PluginConfig config;
+
+    public WorldListener(PluginConfig config) {
+        this.config = config;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        config.forgetWorld(event.getWorld().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        config.forgetWorld(event.getWorld().getName());
+    }
+}
@@ -0,0 +1,90 @@
+package org.blueobsidian.worldTimer.placeholder;
+
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.timer.SessionSnapshot;
+import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.blueobsidian.worldTimer.util.TimeUtil;
+import org.bukkit.OfflinePlayer;
+
+import java.util.UUID;
+
+/**
+ * PlaceholderAPI expansion for %worldtimer_...% placeholders.
+ * Requests may arrive every tick and from async threads, so values are read only from
+ * the immutable snapshots and the cooldown ledger kept by {@link TimerManager},
+ * never from storage, permissions or live session objects.
+ *
+ * Placeholders (world names may contain underscores):
+ *   remaining_<world>, remaining_seconds_<world>,
+ *   used_<world>, used_seconds_<world>, limit_<world>,
+ *   cooldown_<world>, cooldown_seconds_<world>
+ */
+public class WorldTimerExpansion extends PlaceholderExpansion {
+
+    private final WorldTimer plugin;
+
+    public WorldTimerExpansion(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "worldtimer";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "BlueObsidian";
+    }
+
+    @Override
+    public String getVersion() {
+        return plugin.getDescription().getVersion();
+    }
+
+    @Override
+    public boolean persist() {
+        return true;
+    }
+
+    @Override
+    public String onRequest(OfflinePlayer player, String params) {
+        if (player == null) {
+            return "";
+        }
+        UUID uuid = player.getUniqueId();
+        TimerManager timerManager = plugin.getTimerManager();
+
+        // Longer prefixes first so "remaining_seconds_x" is not read as world "seconds_x"
+        if (params.startsWith("remaining_seconds_")) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, params.substring(18));
+            return snapshot == null || !snapshot.isLimitKnown() ? "" : String.valueOf(snapshot.getRemainingSeconds());
+        }
+        if (params.startsWith("remaining_")) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, params.substring(10));
+            if (snapshot == null || !snapshot.isLimitKnown()) return "";
+            return snapshot.isUnlimited() ? "unlimited" : TimeUtil.formatTime(snapshot.getRemainingSeconds());
+        }
+        if (params.startsWith("used_seconds_")) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, params.substring(13));
+            return snapshot == null ? "" : String.valueOf(snapshot.getSecondsUsed());
+        }
+        if (params.startsWith("used_")) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, params.substring(5));
+            return snapshot == null ? "" : TimeUtil.formatTime(snapshot.getSecondsUsed());
+        }
+        if (params.startsWith("limit_")) {
+            SessionSnapshot snapshot = timerManager.getSnapshots().get(uuid, params.substring(6));
+            if (snapshot == null || !snapshot.isLimitKnown()) return "";
+            return snapshot.isUnlimited() ? "unlimited" : TimeUtil.formatTime(snapshot.getLimit());
+        }
+        if (params.startsWith("cooldown_seconds_")) {
+            return String.valueOf(timerManager.getCooldownRemainingSeconds(uuid, params.substring(17)));
+        }
+        if (params.startsWith("cooldown_")) {
+            return TimeUtil.formatTime(timerManager.getCooldownRemainingSeconds(uuid, params.substring(9)));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package org.blueobsidian.worldTimer.region;
+
+import org.blueobsidian.worldTimer.config.RegionConfig;
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index from chunk to the enabled regions overlapping it, per world.
+ * A lookup only tests the few regions registered for the location's chunk, so the
+ * cost of a move does not grow with the number of configured regions.
+ * <p>
+ * Regions spanning more than {@link #MAX_INDEXED_CHUNKS} chunks are not entered per chunk,
+ * which for a world-sized region would take more memory than the server has. They are kept
+ * in a short per-world list that every lookup in that world returns.
+ * Immutable once built; a reload builds a new index.
+ */
+public final class RegionIndex {
+
+    /** Regions overlapping more chunks than this (a 64 by 64 chunk area) are always checked instead. */
+    public static final int MAX_INDEXED_CHUNKS = 4096;
+
+    private static final RegionConfig[] NONE = new RegionConfig[0];
+
+    // world (lowercase) -> chunk key -> regions overlapping that chunk, large ones included
+    private final Map<String, Map<Long, RegionConfig[]>> byChunk = new HashMap<>();
+    // world (lowercase) -> regions too large to index, returned for every chunk of the world
+    private final Map<String, RegionConfig[]> large = new HashMap<>();
+    private final int regions;
+    private int chunks;
+
+    public RegionIndex(Collection<RegionConfig> regionConfigs) {
+        Map<String, Map<Long, List<RegionConfig>>> building = new HashMap<>();
+        Map<String, List<RegionConfig>> buildingLarge = new HashMap<>();
+        int count = 0;
+        for (RegionConfig region : regionConfigs) {
+            if (!region.isEnabled()) continue;
+            count++;
+            String world = region.getWorld().toLowerCase();
+            if (region.getChunkCount() > MAX_INDEXED_CHUNKS) {
+                buildingLarge.computeIfAbsent(world, w -> new ArrayList<>(1)).add(region);
+                continue;
+            }
+            Map<Long, List<RegionConfig>> worldChunks = building.computeIfAbsent(world, w -> new HashMap<>());
+            for (int cx = region.getMinX() >> 4; cx <= region.getMaxX() >> 4; cx++) {
+                for (int cz = region.getMinZ() >> 4; cz <= region.getMaxZ() >> 4; cz++) {
+                    worldChunks.computeIfAbsent(chunkKey(cx, cz), k -> new ArrayList<>(1)).add(region);
+                }
+            }
+        }
+        this.regions = count;
+
+        for (Map.Entry<String, List<RegionConfig>> world : buildingLarge.entrySet()) {
+            large.put(world.getKey(), world.getValue().toArray(NONE));
+        }
+        for (Map.Entry<String, Map<Long, List<RegionConfig>>> world : building.entrySet()) {
+            Map<Long, RegionConfig[]> worldChunks = new HashMap<>(world.getValue().size() * 2);
+            List<RegionConfig> worldLarge = buildingLarge.getOrDefault(world.getKey(), List.of());
+            for (Map.Entry<Long, List<RegionConfig>> chunk : world.getValue().entrySet()) {
+                // Appended here so a lookup returns one prebuilt array without copying
+                List<RegionConfig> all = chunk.getValue();
+                all.addAll(worldLarge);
+                worldChunks.put(chunk.getKey(), all.toArray(NONE));
+            }
+            chunks += worldChunks.size();
+            byChunk.put(world.getKey(), worldChunks);
+        }
+    }
+
+    /**
+     * Returns the regions overlapping the location's chunk. They may not contain the
+     * location itself; callers test {@link RegionConfig#contains(Location)}.
+     */
+    public RegionConfig[] candidates(Location location) {
+        if (location.getWorld() == null) return NONE;
+        String world = location.getWorld().getName().toLowerCase();
+        Map<Long, RegionConfig[]> worldChunks = byChunk.get(world);
+        RegionConfig[] found = worldChunks != null
+                ? worldChunks.get(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4)) : null;
+        return found != null ? found : large.getOrDefault(world, NONE);
+    }
+
+    public boolean isEmpty() {
+        return regions == 0;
+    }
+
+    public int getRegions() {
+        return regions;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
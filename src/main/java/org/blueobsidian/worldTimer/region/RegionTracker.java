@@ -0,0 +1,155 @@
+package org.blueobsidian.worldTimer.region;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.MessageConfig;
+import org.blueobsidian.worldTimer.config.RegionConfig;
+import org.blueobsidian.worldTimer.listener.CooldownDenialCache;
+import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.blueobsidian.worldTimer.util.TimeUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tracks which timed regions each online player stands in and feeds entries and exits
+ * to {@link TimerManager}, the same way world changes do. Region sessions use the region
+ * name as their world key. Main thread only.
+ */
+public class RegionTracker {
+
+    private final WorldTimer plugin;
+    private final TimerManager timerManager;
+    // Regions each player is inside, by lowercase region name
+    private final Map<UUID, Set<String>> inside = new HashMap<>();
+    private RegionIndex index;
+
+    public RegionTracker(WorldTimer plugin, TimerManager timerManager) {
+        this.plugin = plugin;
+        this.timerManager = timerManager;
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the spatial index from the current config. Called on enable and reload.
+     */
+    public void rebuild() {
+        index = new RegionIndex(plugin.getPluginConfig().getRegionConfigs().values());
+    }
+
+    /**
+     * Returns true if moving to the location would enter a region the player is on
+     * cooldown for. Sends the (rate limited) cooldown message. Does not change any state.
+     */
+    public boolean isEntryBlocked(Player player, Location to) {
+        RegionConfig[] candidates = index.candidates(to);
+        if (candidates.length == 0) return false;
+
+        UUID uuid = player.getUniqueId();
+        Set<String> current = inside.get(uuid);
+        for (RegionConfig region : candidates) {
+            String name = region.getWorldName().toLowerCase();
+            if ((current != null && current.contains(name)) || !region.contains(to)
+                    || player.hasPermission(region.getBypassPermission())) {
+                continue;
+            }
+
+            long now = plugin.getClock().millis();
+            CooldownDenialCache denials = plugin.getCooldownDenials();
+            CooldownDenialCache.Denial denial = denials.getActive(uuid, name, now);
+            long remaining = denial != null
+                    ? denial.getCooldownRemainingSeconds(now)
+                    : timerManager.getCooldownRemainingSeconds(uuid, name);
+            if (remaining <= 0) continue;
+
+            if (denial == null) {
+                denial = denials.record(uuid, name, remaining, now);
+            }
+            if (denials.shouldNotify(denial, now)) {
+                MessageConfig msg = plugin.getPluginConfig().getMessageConfig();
+                player.sendMessage(msg.format(msg.getCooldown(), name, null, TimeUtil.formatTime(remaining), player.getName()));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies a player's new position: ends sessions in regions they left and starts
+     * sessions in regions they entered. Only regions indexed for the destination chunk,
+     * plus the ones the player is already in, are looked at.
+     */
+    public void update(Player player, Location to) {
+        UUID uuid = player.getUniqueId();
+        RegionConfig[] candidates = index.candidates(to);
+        Set<String> current = inside.get(uuid);
+        if (candidates.length == 0 && current == null) return;
+
+        // Exits first, so a session in a region that was left is saved before new ones start
+        if (current != null) {
+            for (Iterator<String> it = current.iterator(); it.hasNext(); ) {
+                String name = it.next();
+                RegionConfig region = plugin.getPluginConfig().getRegionConfig(name);
+                if (region == null || !region.isEnabled() || !region.contains(to)) {
+                    it.remove();
+                    timerManager.handleWorldExit(player, name);
+                }
+            }
+            if (current.isEmpty()) {
+                inside.remove(uuid);
+                current = null;
+            }
+        }
+
+        List<RegionConfig> entering = null;
+        for (RegionConfig region : candidates) {
+            if ((current == null || !current.contains(region.getWorldName().toLowerCase())) && region.contains(to)) {
+                if (entering == null) entering = new ArrayList<>(1);
+                entering.add(region);
+            }
+        }
+        if (entering == null) return;
+        for (RegionConfig region : entering) {
+            // False if on cooldown; the player is then sent to the region's main world
+            if (timerManager.handleWorldEntry(player, region)) {
+                inside.computeIfAbsent(uuid, k -> new HashSet<>(2)).add(region.getWorldName().toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * Ends every region session of a player, e.g. on quit.
+     */
+    public void exitAll(Player player) {
+        Set<String> current = inside.remove(player.getUniqueId());
+        if (current == null) return;
+        for (String name : current) {
+            timerManager.handleWorldExit(player, name);
+        }
+    }
+
+    /**
+     * Re-evaluates every online player, e.g. after a reload changed the regions.
+     */
+    public void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            update(player, player.getLocation());
+        }
+    }
+
+    public RegionIndex getIndex() {
+        return index;
+    }
+
+    public int getPlayersInside() {
+        return inside.size();
+    }
+}
@@ -0,0 +1,238 @@
+package org.blueobsidian.worldTimer.state;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.bukkit.Location;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Keeps each online player's last world and return location in memory.
+ * State is loaded once on join, updated in memory on every world change and teleport,
+ * and only written to storage on quit, on a periodic checkpoint (so a crash loses at
+ * most one interval) and on shutdown. Repeated updates between writes collapse into one.
+ */
+public class PlayerStateCache {
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+    private BukkitTask checkpointTask;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public PlayerStateCache(WorldTimer plugin, StorageManager storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+    }
+
+    /**
+     * (Re)starts the checkpoint task with the interval from the config.
+     */
+    public void start() {
+        stopTask();
+        long intervalTicks = Math.max(1, plugin.getPluginConfig().getPlayerStateCheckpointSeconds()) * 20L;
+        checkpointTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::checkpoint, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stops the checkpoint task and writes everything still dirty. Called on shutdown.
+     */
+    public void stop() {
+        stopTask();
+        checkpoint();
+    }
+
+    /**
+     * Loads a joining player's stored state. Blocking; called off the main thread.
+     * Returns the last world the player was in before this join, or null.
+     */
+    public String load(UUID uuid) {
+        // Claim the state first, so a quit still being written cannot drop it after we read storage
+        PlayerState state = states.compute(uuid, (k, existing) -> {
+            PlayerState claimed = existing != null ? existing : new PlayerState();
+            synchronized (claimed) {
+                claimed.released = false;
+            }
+            return claimed;
+        });
+        String storedWorld = storage.loadLastWorld(uuid);
+        Location storedReturn = storage.loadReturnLocation(uuid);
+        synchronized (state) {
+            // Values set in memory meanwhile, or kept from a previous session, are newer
+            if (!state.lastWorldKnown) {
+                state.lastWorld = storedWorld;
+                state.lastWorldKnown = true;
+            }
+            if (!state.returnKnown) {
+                state.returnLocation = storedReturn;
+                state.returnKnown = true;
+            }
+            return state.lastWorld;
+        }
+    }
+
+    public void setLastWorld(UUID uuid, String worldName) {
+        PlayerState state = states.computeIfAbsent(uuid, k -> new PlayerState());
+        synchronized (state) {
+            if (!state.lastWorldKnown || !worldName.equals(state.lastWorld)) {
+                state.lastWorld = worldName;
+                state.lastWorldKnown = true;
+                state.lastWorldDirty = true;
+                updates.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the saved return location. Reads storage on the calling thread only if the
+     * player's state was never loaded (e.g. they were online before the plugin enabled).
+     */
+    public Location getReturnLocation(UUID uuid) {
+        PlayerState state = states.computeIfAbsent(uuid, k -> new PlayerState());
+        synchronized (state) {
+            if (!state.returnKnown) {
+                state.returnLocation = storage.loadReturnLocation(uuid);
+                state.returnKnown = true;
+            }
+            return state.returnLocation != null ? state.returnLocation.clone() : null;
+        }
+    }
+
+    public void setReturnLocation(UUID uuid, Location location) {
+        if (location == null || location.getWorld() == null) return;
+        PlayerState state = states.computeIfAbsent(uuid, k -> new PlayerState());
+        synchronized (state) {
+            state.returnLocation = location.clone();
+            state.returnKnown = true;
+            state.returnDirty = true;
+            updates.incrementAndGet();
+        }
+    }
+
+    public void clearReturnLocation(UUID uuid) {
+        PlayerState state = states.computeIfAbsent(uuid, k -> new PlayerState());
+        synchronized (state) {
+            if (!state.returnKnown || state.returnLocation != null) {
+                state.returnLocation = null;
+                state.returnKnown = true;
+                state.returnDirty = true;
+                updates.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Writes a quitting player's state on the storage executor and then forgets it,
+     * unless they rejoined in the meantime.
+     */
+    public void release(UUID uuid) {
+        PlayerState state = states.get(uuid);
+        if (state == null) return;
+        synchronized (state) {
+            state.released = true;
+        }
+        plugin.getStorageExecutor().run("player-state", () -> write(uuid, state)).whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to write player state for " + uuid, error);
+                return;
+            }
+            synchronized (state) {
+                if (state.released && !state.isDirty()) {
+                    states.remove(uuid, state);
+                }
+            }
+        });
+    }
+
+    public int getCached() {
+        return states.size();
+    }
+
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    /**
+     * Writes every dirty state, and drops states of players who have quit once they are
+     * written, in case the write on quit found them dirty again.
+     */
+    private void checkpoint() {
+        for (Map.Entry<UUID, PlayerState> entry : states.entrySet()) {
+            PlayerState state = entry.getValue();
+            write(entry.getKey(), state);
+            synchronized (state) {
+                if (state.released && !state.isDirty()) {
+                    states.remove(entry.getKey(), state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes whatever is dirty. The write lock keeps a checkpoint and a quit for the
+     * same player from reaching storage out of order.
+     */
+    private void write(UUID uuid, PlayerState state) {
+        synchronized (state.writeLock) {
+            String lastWorld = null;
+            Location returnLocation = null;
+            boolean writeWorld;
+            boolean writeReturn;
+            synchronized (state) {
+                writeWorld = state.lastWorldDirty;
+                writeReturn = state.returnDirty;
+                if (writeWorld) lastWorld = state.lastWorld;
+                if (writeReturn && state.returnLocation != null) returnLocation = state.returnLocation.clone();
+                state.lastWorldDirty = false;
+                state.returnDirty = false;
+            }
+            if (writeWorld) {
+                storage.saveLastWorld(uuid, lastWorld);
+                writes.incrementAndGet();
+            }
+            if (writeReturn) {
+                if (returnLocation != null) {
+                    storage.saveReturnLocation(uuid, returnLocation);
+                } else {
+                    storage.clearReturnLocation(uuid);
+                }
+                writes.incrementAndGet();
+            }
+        }
+    }
+
+    private void stopTask() {
+        if (checkpointTask != null) {
+            checkpointTask.cancel();
+            checkpointTask = null;
+        }
+    }
+
+    private static final class PlayerState {
+
+        private final Object writeLock = new Object();
+        private String lastWorld;
+        private boolean lastWorldKnown;
+        private boolean lastWorldDirty;
+        private Location returnLocation;
+        private boolean returnKnown;
+        private boolean returnDirty;
+        private boolean released;
+
+        private boolean isDirty() {
+            return lastWorldDirty || returnDirty;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A batch of imported rows for {@link StorageManager#importData(DataBatch)}. Reused
+ * between batches with {@link #clear()}, so an import holds one batch at a time.
+ */
+public class DataBatch {
+
+    private final List<PlayerTimerData> timers = new ArrayList<>();
+    private final Map<UUID, String> lastWorlds = new LinkedHashMap<>();
+    private final Map<UUID, StoredLocation> returnLocations = new LinkedHashMap<>();
+
+    public void addTimer(PlayerTimerData data) {
+        timers.add(data);
+    }
+
+    public void addLastWorld(UUID playerUuid, String worldName) {
+        lastWorlds.put(playerUuid, worldName);
+    }
+
+    public void addReturnLocation(UUID playerUuid, StoredLocation location) {
+        returnLocations.put(playerUuid, location);
+    }
+
+    public List<PlayerTimerData> getTimers() {
+        return timers;
+    }
+
+    public Map<UUID, String> getLastWorlds() {
+        return lastWorlds;
+    }
+
+    public Map<UUID, StoredLocation> getReturnLocations() {
+        return returnLocations;
+    }
+
+    public int size() {
+        return timers.size() + lastWorlds.size() + returnLocations.size();
+    }
+
+    public void clear() {
+        timers.clear();
+        lastWorlds.clear();
+        returnLocations.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Receives stored rows one at a time from {@link StorageManager#exportData(DataVisitor)}.
+ */
+public interface DataVisitor {
+
+    void timer(PlayerTimerData data) throws IOException;
+
+    void lastWorld(UUID playerUuid, String worldName) throws IOException;
+
+    void returnLocation(UUID playerUuid, StoredLocation location) throws IOException;
+}
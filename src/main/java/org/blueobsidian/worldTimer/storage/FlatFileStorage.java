@@ -0,0 +1,578 @@
+package org.blueobsidian.worldTimer.storage;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Storage backend that keeps timer_data as fixed-width binary records in a memory-mapped file.
+ * Each record is a UUID, a world id and the two timer longs; an in-memory open-addressing
+ * index maps keys to record numbers so loads and saves are a lookup plus an in-place read
+ * or write. Dirty pages are forced to disk on a periodic async task and on shutdown, outside the
+ * lock that loads and saves take, so a main-thread save never waits on an fsync.
+ * <p>
+ * Last worlds and return locations are small and rarely written, so they live in a text
+ * sidecar file that is rewritten on the same flush task. Session history is appended to a
+ * CSV file.
+ */
+public class FlatFileStorage implements StorageManager {
+
+    private static final int MAGIC = 0x57544D52; // "WTMR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    // msb, lsb, world id, reserved, seconds used, cooldown until
+    private static final int RECORD_SIZE = 40;
+    private static final int MIN_CAPACITY = 1024;
+    // The flush task grows the mapping once it is this full, so saves rarely have to remap
+    private static final double GROW_AHEAD_LOAD = 0.75;
+    // Records copied per lock hold while exporting
+    private static final int EXPORT_CHUNK = 1024;
+
+    private final WorldTimer plugin;
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final Object historyLock = new Object();
+
+    private File timersFile;
+    private File worldsFile;
+    private File sidecarFile;
+    private File historyFile;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int recordCount;
+    private TimerRecordIndex index;
+    // World id is the line number in timers-worlds.txt
+    private final List<String> worldNames = new ArrayList<>();
+    private final Map<String, Integer> worldIds = new HashMap<>();
+
+    private final Map<UUID, String> lastWorlds = new HashMap<>();
+    private final Map<UUID, StoredLocation> returnLocations = new HashMap<>();
+
+    private boolean recordsDirty;
+    private boolean worldsDirty;
+    private boolean sidecarDirty;
+    private BukkitTask flushTask;
+
+    public FlatFileStorage(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void init() {
+        File dataFolder = plugin.getDataFolder();
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+        timersFile = new File(dataFolder, "timers.dat");
+        worldsFile = new File(dataFolder, "timers-worlds.txt");
+        sidecarFile = new File(dataFolder, "players.dat");
+        historyFile = new File(dataFolder, "session_history.csv");
+
+        synchronized (lock) {
+            try {
+                loadWorlds();
+                openTimers();
+                loadSidecar();
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to initialize flat-file storage", e);
+                return;
+            }
+        }
+
+        long intervalTicks = Math.max(1, plugin.getPluginConfig().getFlatFileFsyncIntervalSeconds()) * 20L;
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, this::flush, intervalTicks, intervalTicks);
+        plugin.getLogger().info("Flat-file storage initialized with " + recordCount + " timer record(s).");
+    }
+
+    @Override
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+        synchronized (lock) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to close timer data file", e);
+                }
+                channel = null;
+                buffer = null;
+            }
+        }
+    }
+
+    @Override
+    public PlayerTimerData loadData(UUID playerUuid, String worldName) {
+        String world = worldName.toLowerCase();
+        synchronized (lock) {
+            Integer worldId = worldIds.get(world);
+            int record = worldId != null && buffer != null ? index.get(playerUuid, worldId) : -1;
+            if (record >= 0) {
+                int offset = offset(record);
+                return new PlayerTimerData(playerUuid, world, buffer.getLong(offset + 24), buffer.getLong(offset + 32));
+            }
+        }
+        return new PlayerTimerData(playerUuid, world, 0, 0);
+    }
+
+    @Override
+    public List<PlayerTimerData> loadData(Map<UUID, String> playerWorlds) {
+        List<PlayerTimerData> result = new ArrayList<>(playerWorlds.size());
+        for (Map.Entry<UUID, String> entry : playerWorlds.entrySet()) {
+            result.add(loadData(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public void saveData(PlayerTimerData data) {
+        synchronized (lock) {
+            if (buffer == null) return;
+            try {
+                int worldId = worldId(data.getWorldName().toLowerCase());
+                int record = index.get(data.getPlayerUuid(), worldId);
+                if (record < 0) {
+                    record = appendRecord(data.getPlayerUuid(), worldId);
+                }
+                int offset = offset(record);
+                buffer.putLong(offset + 24, data.getSecondsUsed());
+                buffer.putLong(offset + 32, data.getCooldownUntil());
+                recordsDirty = true;
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to save timer data for " + data.getPlayerUuid(), e);
+            }
+        }
+    }
+
+    @Override
+    public List<PlayerTimerData> loadActiveCooldowns(long nowEpochSeconds) {
+        List<PlayerTimerData> result = new ArrayList<>();
+        synchronized (lock) {
+            if (buffer == null) return result;
+            for (int record = 0; record < recordCount; record++) {
+                int offset = offset(record);
+                long cooldownUntil = buffer.getLong(offset + 32);
+                if (cooldownUntil > nowEpochSeconds) {
+                    result.add(new PlayerTimerData(
+                            new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)),
+                            worldNames.get(buffer.getInt(offset + 16)),
+                            buffer.getLong(offset + 24),
+                            cooldownUntil
+                    ));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void resetData(UUID playerUuid, String worldName) {
+        synchronized (lock) {
+            Integer worldId = worldIds.get(worldName.toLowerCase());
+            int record = worldId != null && buffer != null ? index.get(playerUuid, worldId) : -1;
+            if (record >= 0) {
+                // Records are never removed; a zeroed record reads the same as a missing one
+                int offset = offset(record);
+                buffer.putLong(offset + 24, 0);
+                buffer.putLong(offset + 32, 0);
+                recordsDirty = true;
+            }
+        }
+    }
+
+    @Override
+    public void saveLastWorld(UUID playerUuid, String worldName) {
+        synchronized (lock) {
+            if (!worldName.equals(lastWorlds.put(playerUuid, worldName))) {
+                sidecarDirty = true;
+            }
+        }
+    }
+
+    @Override
+    public String loadLastWorld(UUID playerUuid) {
+        synchronized (lock) {
+            return lastWorlds.get(playerUuid);
+        }
+    }
+
+    @Override
+    public void saveReturnLocation(UUID playerUuid, Location location) {
+        if (location == null || location.getWorld() == null) return;
+        synchronized (lock) {
+            returnLocations.put(playerUuid, StoredLocation.of(location));
+            sidecarDirty = true;
+        }
+    }
+
+    @Override
+    public Location loadReturnLocation(UUID playerUuid) {
+        StoredLocation stored;
+        synchronized (lock) {
+            stored = returnLocations.get(playerUuid);
+        }
+        if (stored == null) return null;
+        World world = Bukkit.getWorld(stored.world());
+        if (world == null) return null;
+        return new Location(world, stored.x(), stored.y(), stored.z(), stored.yaw(), stored.pitch());
+    }
+
+    @Override
+    public void clearReturnLocation(UUID playerUuid) {
+        synchronized (lock) {
+            if (returnLocations.remove(playerUuid) != null) {
+                sidecarDirty = true;
+            }
+        }
+    }
+
+    @Override
+    public void appendSessionHistory(List<SessionRecord> records) {
+        if (records.isEmpty()) return;
+        synchronized (historyLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(historyFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SessionRecord record : records) {
+                    writer.write(record.getPlayerUuid() + "," + record.getWorldName() + ","
+                            + record.getEnteredAt() + "," + record.getExitedAt() + ","
+                            + record.getSecondsConsumed() + "," + record.getLimitAtEntry() + ","
+                            + record.getEndReason().name());
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to write " + records.size() + " session history row(s)", e);
+            }
+        }
+    }
+
+    @Override
+    public int pruneSessionHistory(long olderThanEpochSeconds) {
+        synchronized (historyLock) {
+            if (!historyFile.exists()) return 0;
+            try {
+                List<String> kept = new ArrayList<>();
+                int pruned = 0;
+                for (String line : Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8)) {
+                    String[] parts = line.split(",");
+                    if (parts.length == 7 && Long.parseLong(parts[3]) < olderThanEpochSeconds) {
+                        pruned++;
+                    } else {
+                        kept.add(line);
+                    }
+                }
+                if (pruned > 0) {
+                    writeAtomically(historyFile, kept);
+                }
+                return pruned;
+            } catch (IOException | NumberFormatException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prune session history", e);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int pruneIdleTimers(long nowEpochSeconds, int limit) {
+        // Records are fixed slots that are never removed; an idle one costs 40 bytes, not a lookup
+        return 0;
+    }
+
+    @Override
+    public int prunePlayerState(long olderThanEpochSeconds, int limit) {
+        // The sidecar keeps no write times
+        return 0;
+    }
+
+    @Override
+    public int compact(int maxPages) {
+        return 0;
+    }
+
+    @Override
+    public void appendChanges(List<TimerChange> changes) {
+        // Files in one server's folder are not shared, there is nobody to read the feed
+    }
+
+    @Override
+    public List<TimerChange> loadChanges(long afterId, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public long latestChangeId() {
+        return 0;
+    }
+
+    @Override
+    public int pruneChanges(long olderThanEpochSeconds) {
+        return 0;
+    }
+
+    @Override
+    public void noteRemoteKey(UUID playerUuid, String worldName) {
+        // Not shared between servers, so no row is written elsewhere
+    }
+
+    @Override
+    public void exportData(DataVisitor visitor) throws IOException {
+        // Records are append-only, so a record number is a stable cursor between chunks
+        List<PlayerTimerData> chunk = new ArrayList<>(EXPORT_CHUNK);
+        int next = 0;
+        while (true) {
+            synchronized (lock) {
+                if (buffer == null) return;
+                int end = Math.min(recordCount, next + EXPORT_CHUNK);
+                for (; next < end; next++) {
+                    int offset = offset(next);
+                    long secondsUsed = buffer.getLong(offset + 24);
+                    long cooldownUntil = buffer.getLong(offset + 32);
+                    // Zeroed records are resets, they read the same as missing ones
+                    if (secondsUsed == 0 && cooldownUntil == 0) continue;
+                    chunk.add(new PlayerTimerData(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)),
+                            worldNames.get(buffer.getInt(offset + 16)), secondsUsed, cooldownUntil));
+                }
+            }
+            if (chunk.isEmpty() && next >= recordCount) break;
+            for (PlayerTimerData data : chunk) {
+                visitor.timer(data);
+            }
+            chunk.clear();
+        }
+
+        // The sidecar is held in memory in full anyway; copy it so the visitor runs unlocked
+        List<Map.Entry<UUID, String>> worlds;
+        List<Map.Entry<UUID, StoredLocation>> locations;
+        synchronized (lock) {
+            worlds = lastWorlds.entrySet().stream().map(e -> Map.entry(e.getKey(), e.getValue())).toList();
+            locations = returnLocations.entrySet().stream().map(e -> Map.entry(e.getKey(), e.getValue())).toList();
+        }
+        for (Map.Entry<UUID, String> entry : worlds) {
+            visitor.lastWorld(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<UUID, StoredLocation> entry : locations) {
+            visitor.returnLocation(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean importData(DataBatch batch) {
+        synchronized (lock) {
+            if (buffer == null) return false;
+            for (PlayerTimerData data : batch.getTimers()) {
+                saveData(data);
+            }
+            if (!batch.getLastWorlds().isEmpty() || !batch.getReturnLocations().isEmpty()) {
+                lastWorlds.putAll(batch.getLastWorlds());
+                returnLocations.putAll(batch.getReturnLocations());
+                sidecarDirty = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forces changed records to disk and rewrites the sidecar if it changed.
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            List<String> sidecarLines = null;
+            MappedByteBuffer records = null;
+            boolean worlds;
+            synchronized (lock) {
+                if (buffer != null && recordCount > capacity * GROW_AHEAD_LOAD) {
+                    try {
+                        map(capacity * 2);
+                    } catch (IOException e) {
+                        plugin.getLogger().log(Level.WARNING, "Failed to grow timer data file", e);
+                    }
+                }
+                // Only the flags are taken under the lock; the forces below run unlocked
+                if (recordsDirty && buffer != null) {
+                    records = buffer;
+                    recordsDirty = false;
+                }
+                worlds = worldsDirty;
+                worldsDirty = false;
+                if (sidecarDirty) {
+                    sidecarLines = sidecarLines();
+                    sidecarDirty = false;
+                }
+            }
+            // World names first, so a record on disk never refers to an id that is not
+            if (worlds) {
+                try (FileChannel worldsChannel = FileChannel.open(worldsFile.toPath(), StandardOpenOption.WRITE)) {
+                    worldsChannel.force(true);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to sync world names file", e);
+                    synchronized (lock) {
+                        worldsDirty = true;
+                    }
+                }
+            }
+            if (records != null) {
+                records.force();
+            }
+            if (sidecarLines == null) return;
+            try {
+                writeAtomically(sidecarFile, sidecarLines);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to write player sidecar file", e);
+                synchronized (lock) {
+                    sidecarDirty = true;
+                }
+            }
+        }
+    }
+
+    private void openTimers() throws IOException {
+        channel = FileChannel.open(timersFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        int stored = 0;
+        if (size >= HEADER_SIZE) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Unrecognised timer data file " + timersFile.getName());
+            }
+            // Ignore a record that was being appended when the server stopped
+            stored = (int) Math.min(header.getInt(COUNT_OFFSET), (size - HEADER_SIZE) / RECORD_SIZE);
+        }
+
+        map(Math.max(MIN_CAPACITY, stored * 2));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(COUNT_OFFSET, stored);
+        recordCount = stored;
+
+        index = new TimerRecordIndex(Math.max(MIN_CAPACITY, stored));
+        for (int record = 0; record < recordCount; record++) {
+            int offset = offset(record);
+            int worldId = buffer.getInt(offset + 16);
+            if (worldId < 0 || worldId >= worldNames.size()) {
+                // Its world name was lost in a crash before the names file was synced; the
+                // record reads as reset and is never looked up
+                buffer.putInt(offset + 16, 0);
+                buffer.putLong(offset + 24, 0);
+                buffer.putLong(offset + 32, 0);
+                continue;
+            }
+            index.put(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)), worldId, record);
+        }
+    }
+
+    private void map(int newCapacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+        capacity = newCapacity;
+    }
+
+    private int appendRecord(UUID uuid, int worldId) throws IOException {
+        if (recordCount == capacity) {
+            // The flush task normally grows the file first. Both mappings share the page
+            // cache, so nothing needs forcing here; the next flush forces the new mapping
+            map(capacity * 2);
+        }
+        int record = recordCount;
+        int offset = offset(record);
+        buffer.putLong(offset, uuid.getMostSignificantBits());
+        buffer.putLong(offset + 8, uuid.getLeastSignificantBits());
+        buffer.putInt(offset + 16, worldId);
+        buffer.putInt(offset + 20, 0);
+        buffer.putLong(offset + 24, 0);
+        buffer.putLong(offset + 32, 0);
+        // Publish the record only once it is fully written
+        recordCount++;
+        buffer.putInt(COUNT_OFFSET, recordCount);
+        index.put(uuid, worldId, record);
+        return record;
+    }
+
+    private int worldId(String world) throws IOException {
+        Integer id = worldIds.get(world);
+        if (id != null) {
+            return id;
+        }
+        // Write the new id before any record refers to it; the flush task syncs it before the records
+        Files.writeString(worldsFile.toPath(), world + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        worldsDirty = true;
+        id = worldNames.size();
+        worldNames.add(world);
+        worldIds.put(world, id);
+        return id;
+    }
+
+    private void loadWorlds() throws IOException {
+        if (!worldsFile.exists()) return;
+        for (String line : Files.readAllLines(worldsFile.toPath(), StandardCharsets.UTF_8)) {
+            if (line.isEmpty()) continue;
+            worldIds.put(line, worldNames.size());
+            worldNames.add(line);
+        }
+    }
+
+    private void loadSidecar() throws IOException {
+        if (!sidecarFile.exists()) return;
+        for (String line : Files.readAllLines(sidecarFile.toPath(), StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t");
+            try {
+                if (parts.length == 3 && parts[0].equals("W")) {
+                    lastWorlds.put(UUID.fromString(parts[1]), parts[2]);
+                } else if (parts.length == 8 && parts[0].equals("R")) {
+                    returnLocations.put(UUID.fromString(parts[1]), new StoredLocation(parts[2],
+                            Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), Double.parseDouble(parts[5]),
+                            Float.parseFloat(parts[6]), Float.parseFloat(parts[7])));
+                }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping malformed line in " + sidecarFile.getName() + ": " + line);
+            }
+        }
+    }
+
+    private List<String> sidecarLines() {
+        List<String> lines = new ArrayList<>(lastWorlds.size() + returnLocations.size());
+        for (Map.Entry<UUID, String> entry : lastWorlds.entrySet()) {
+            lines.add("W\t" + entry.getKey() + "\t" + entry.getValue());
+        }
+        for (Map.Entry<UUID, StoredLocation> entry : returnLocations.entrySet()) {
+            StoredLocation loc = entry.getValue();
+            lines.add("R\t" + entry.getKey() + "\t" + loc.world() + "\t" + loc.x() + "\t" + loc.y() + "\t"
+                    + loc.z() + "\t" + loc.yaw() + "\t" + loc.pitch());
+        }
+        return lines;
+    }
+
+    private static void writeAtomically(File file, List<String> lines) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int offset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,234 @@
+package org.blueobsidian.worldTimer.storage;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storage backend that keeps everything in memory. Nothing survives a restart;
+ * used by the test harness and for trying the plugin out without touching disk.
+ */
+public class InMemoryStorage implements StorageManager {
+
+    // Key = "uuid:world"
+    private final Map<String, PlayerTimerData> timers = new ConcurrentHashMap<>();
+    private final Map<UUID, String> lastWorlds = new ConcurrentHashMap<>();
+    private final Map<UUID, Location> returnLocations = new ConcurrentHashMap<>();
+    private final List<SessionRecord> sessionHistory = Collections.synchronizedList(new ArrayList<>());
+    // Change feed rows in id order; guarded by itself
+    private final List<TimerChange> changes = new ArrayList<>();
+    private long lastChangeId;
+
+    @Override
+    public void init() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public PlayerTimerData loadData(UUID playerUuid, String worldName) {
+        String world = worldName.toLowerCase();
+        PlayerTimerData stored = timers.get(key(playerUuid, world));
+        // Immutable, so the stored instance can be handed out as is
+        return stored != null ? stored : new PlayerTimerData(playerUuid, world, 0, 0);
+    }
+
+    @Override
+    public List<PlayerTimerData> loadData(Map<UUID, String> playerWorlds) {
+        List<PlayerTimerData> result = new ArrayList<>(playerWorlds.size());
+        for (Map.Entry<UUID, String> entry : playerWorlds.entrySet()) {
+            result.add(loadData(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public void saveData(PlayerTimerData data) {
+        String world = data.getWorldName().toLowerCase();
+        timers.put(key(data.getPlayerUuid(), world),
+                new PlayerTimerData(data.getPlayerUuid(), world, data.getSecondsUsed(), data.getCooldownUntil()));
+    }
+
+    @Override
+    public List<PlayerTimerData> loadActiveCooldowns(long nowEpochSeconds) {
+        List<PlayerTimerData> result = new ArrayList<>();
+        for (PlayerTimerData data : timers.values()) {
+            if (data.getCooldownUntil() > nowEpochSeconds) {
+                result.add(data);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void resetData(UUID playerUuid, String worldName) {
+        timers.remove(key(playerUuid, worldName.toLowerCase()));
+    }
+
+    @Override
+    public void saveLastWorld(UUID playerUuid, String worldName) {
+        lastWorlds.put(playerUuid, worldName);
+    }
+
+    @Override
+    public String loadLastWorld(UUID playerUuid) {
+        return lastWorlds.get(playerUuid);
+    }
+
+    @Override
+    public void saveReturnLocation(UUID playerUuid, Location location) {
+        if (location == null || location.getWorld() == null) return;
+        returnLocations.put(playerUuid, location.clone());
+    }
+
+    @Override
+    public Location loadReturnLocation(UUID playerUuid) {
+        Location location = returnLocations.get(playerUuid);
+        return location != null ? location.clone() : null;
+    }
+
+    @Override
+    public void clearReturnLocation(UUID playerUuid) {
+        returnLocations.remove(playerUuid);
+    }
+
+    @Override
+    public void appendSessionHistory(List<SessionRecord> records) {
+        sessionHistory.addAll(records);
+    }
+
+    @Override
+    public int pruneSessionHistory(long olderThanEpochSeconds) {
+        synchronized (sessionHistory) {
+            int before = sessionHistory.size();
+            sessionHistory.removeIf(record -> record.getExitedAt() < olderThanEpochSeconds);
+            return before - sessionHistory.size();
+        }
+    }
+
+    @Override
+    public int pruneIdleTimers(long nowEpochSeconds, int limit) {
+        int pruned = 0;
+        for (Iterator<PlayerTimerData> it = timers.values().iterator(); it.hasNext() && pruned < limit; ) {
+            PlayerTimerData data = it.next();
+            if (data.getSecondsUsed() == 0 && data.getCooldownUntil() < nowEpochSeconds) {
+                it.remove();
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    @Override
+    public int prunePlayerState(long olderThanEpochSeconds, int limit) {
+        // Write times are not kept; nothing here outlives a restart anyway
+        return 0;
+    }
+
+    @Override
+    public int compact(int maxPages) {
+        return 0;
+    }
+
+    @Override
+    public void appendChanges(List<TimerChange> appended) {
+        synchronized (changes) {
+            for (TimerChange change : appended) {
+                changes.add(new TimerChange(++lastChangeId, change.getServer(), change.getType(), change.getPlayerUuid(),
+                        change.getWorldName(), change.getSecondsUsed(), change.getCooldownUntil(),
+                        change.getSecondsAdded(), change.getChangedAt()));
+            }
+        }
+    }
+
+    @Override
+    public List<TimerChange> loadChanges(long afterId, int limit) {
+        List<TimerChange> result = new ArrayList<>();
+        synchronized (changes) {
+            for (TimerChange change : changes) {
+                if (change.getId() <= afterId) continue;
+                if (result.size() == limit) break;
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long latestChangeId() {
+        synchronized (changes) {
+            return lastChangeId;
+        }
+    }
+
+    @Override
+    public int pruneChanges(long olderThanEpochSeconds) {
+        synchronized (changes) {
+            int before = changes.size();
+            changes.removeIf(change -> change.getChangedAt() < olderThanEpochSeconds);
+            return before - changes.size();
+        }
+    }
+
+    @Override
+    public void noteRemoteKey(UUID playerUuid, String worldName) {
+        // Every read looks at the map itself
+    }
+
+    @Override
+    public void exportData(DataVisitor visitor) throws IOException {
+        for (PlayerTimerData data : timers.values()) {
+            visitor.timer(data);
+        }
+        for (Map.Entry<UUID, String> entry : lastWorlds.entrySet()) {
+            visitor.lastWorld(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<UUID, Location> entry : returnLocations.entrySet()) {
+            if (entry.getValue().getWorld() != null) {
+                visitor.returnLocation(entry.getKey(), StoredLocation.of(entry.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public boolean importData(DataBatch batch) {
+        for (PlayerTimerData data : batch.getTimers()) {
+            saveData(data);
+        }
+        lastWorlds.putAll(batch.getLastWorlds());
+        for (Map.Entry<UUID, StoredLocation> entry : batch.getReturnLocations().entrySet()) {
+            StoredLocation stored = entry.getValue();
+            World world = Bukkit.getWorld(stored.world());
+            // Only worlds that exist can be held as a Location here
+            if (world != null) {
+                returnLocations.put(entry.getKey(),
+                        new Location(world, stored.x(), stored.y(), stored.z(), stored.yaw(), stored.pitch()));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of all session history records written so far.
+     */
+    public List<SessionRecord> getSessionHistory() {
+        synchronized (sessionHistory) {
+            return new ArrayList<>(sessionHistory);
+        }
+    }
+
+    private static String key(UUID uuid, String world) {
+        return uuid + ":" + world;
+    }
+}
@@ -2,12 +2,17 @@ package org.blueobsidian.worldTimer.storage;
 
 import java.util.UUID;
 
-public class PlayerTimerData {
+/**
+ * Immutable timer state of a player in one world, as stored. Live sessions are kept in
+ * the timer's session table; instances of this class are copies that can be handed to
+ * storage, the storage executor or API callers without synchronization.
+ */
+public final class PlayerTimerData {
 
     private final UUID playerUuid;
     private final String worldName;
-    private long secondsUsed;
-    private long cooldownUntil; // epoch seconds
+    private final long secondsUsed;
+    private final long cooldownUntil; // epoch seconds
 
     public PlayerTimerData(UUID playerUuid, String worldName, long secondsUsed, long cooldownUntil) {
         this.playerUuid = playerUuid;
@@ -28,28 +33,24 @@ public class PlayerTimerData {
         return secondsUsed;
     }
 
-    public void setSecondsUsed(long secondsUsed) {
-        this.secondsUsed = secondsUsed;
-    }
-
-    public void addSeconds(long seconds) {
-        this.secondsUsed += seconds;
+    public PlayerTimerData withSecondsUsed(long secondsUsed) {
+        return new PlayerTimerData(playerUuid, worldName, secondsUsed, cooldownUntil);
     }
 
     public long getCooldownUntil() {
         return cooldownUntil;
     }
 
-    public void setCooldownUntil(long cooldownUntil) {
-        this.cooldownUntil = cooldownUntil;
+    public PlayerTimerData withCooldownUntil(long cooldownUntil) {
+        return new PlayerTimerData(playerUuid, worldName, secondsUsed, cooldownUntil);
     }
 
-    public boolean isCooldownActive() {
-        return cooldownUntil > System.currentTimeMillis() / 1000;
+    public boolean isCooldownActive(long nowSeconds) {
+        return cooldownUntil > nowSeconds;
     }
 
-    public long getCooldownRemainingSeconds() {
-        long remaining = cooldownUntil - (System.currentTimeMillis() / 1000);
+    public long getCooldownRemainingSeconds(long nowSeconds) {
+        long remaining = cooldownUntil - nowSeconds;
         return Math.max(0, remaining);
     }
 }
@@ -1,19 +1,48 @@
 package org.blueobsidian.worldTimer.storage;
 
 import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.PluginConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Level;
 
 public class SQLiteStorage implements StorageManager {
 
+    // Target false-positive rate and minimum size for the timer_data row filter
+    private static final double ROW_FILTER_FPP = 0.01;
+    private static final int ROW_FILTER_MIN_CAPACITY = 1024;
+    // A background rebuild scans the whole table, so it gets far longer than a single query
+    private static final long ROW_FILTER_REBUILD_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+    // UUIDs per IN (...) list, well under SQLite's bound parameter limit
+    private static final int BATCH_LOAD_SIZE = 500;
+    // Rows the driver fetches per round trip while exporting
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    // Change feed rows per multi-row INSERT, 9 parameters each
+    private static final int CHANGE_BATCH_SIZE = 100;
+    // PRAGMA auto_vacuum value that lets free pages be returned a few at a time
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
     private final WorldTimer plugin;
     private Connection connection;
+    // Negative cache over timer_data keys; null when disabled or it could not be built
+    private volatile TimerRowFilter rowFilter;
+    // Replacement being filled by a background rebuild; new keys go into both until it is swapped in
+    private volatile TimerRowFilter pendingRowFilter;
+    // Held for every write on the shared connection, so none lands inside an import
+    // transaction, and around timer_data writes so the row filter stays in step
+    private final Object writeLock = new Object();
+    private boolean incrementalVacuum;
 
     public SQLiteStorage(WorldTimer plugin) {
         this.plugin = plugin;
@@ -30,6 +59,7 @@ public class SQLiteStorage implements StorageManager {
             connection = DriverManager.getConnection(url);
 
             try (Statement stmt = connection.createStatement()) {
+                enableIncrementalVacuum(stmt);
                 stmt.executeUpdate(
                         "CREATE TABLE IF NOT EXISTS timer_data (" +
                                 "uuid TEXT NOT NULL, " +
@@ -39,10 +69,18 @@ public class SQLiteStorage implements StorageManager {
                                 "PRIMARY KEY (uuid, world)" +
                                 ")"
                 );
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_timer_data_cooldown ON timer_data (cooldown_until)"
+                );
+                // Only idle rows, the ones retention deletes; stays small once they are pruned
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_timer_data_idle ON timer_data (cooldown_until) WHERE seconds_used = 0"
+                );
                 stmt.executeUpdate(
                         "CREATE TABLE IF NOT EXISTS player_worlds (" +
                                 "uuid TEXT NOT NULL PRIMARY KEY, " +
-                                "last_world TEXT NOT NULL" +
+                                "last_world TEXT NOT NULL, " +
+                                "updated_at BIGINT NOT NULL DEFAULT 0" +
                                 ")"
                 );
                 stmt.executeUpdate(
@@ -53,9 +91,59 @@ public class SQLiteStorage implements StorageManager {
                                 "y REAL NOT NULL, " +
                                 "z REAL NOT NULL, " +
                                 "yaw REAL NOT NULL DEFAULT 0, " +
-                                "pitch REAL NOT NULL DEFAULT 0" +
+                                "pitch REAL NOT NULL DEFAULT 0, " +
+                                "updated_at BIGINT NOT NULL DEFAULT 0" +
+                                ")"
+                );
+                // Tables created before retention existed; their rows count as written now
+                long now = plugin.getClock().seconds();
+                addColumnIfMissing(stmt, "player_worlds", "updated_at", now);
+                addColumnIfMissing(stmt, "return_locations", "updated_at", now);
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_player_worlds_updated ON player_worlds (updated_at)"
+                );
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_return_locations_updated ON return_locations (updated_at)"
+                );
+                stmt.executeUpdate(
+                        "CREATE TABLE IF NOT EXISTS session_history (" +
+                                "id INTEGER PRIMARY KEY, " +
+                                "uuid TEXT NOT NULL, " +
+                                "world TEXT NOT NULL, " +
+                                "entered_at BIGINT NOT NULL, " +
+                                "exited_at BIGINT NOT NULL, " +
+                                "seconds_consumed BIGINT NOT NULL, " +
+                                "limit_seconds BIGINT NOT NULL, " +
+                                "end_reason TEXT NOT NULL" +
+                                ")"
+                );
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_session_history_exited ON session_history (exited_at)"
+                );
+                // AUTOINCREMENT so ids never go back after the newest rows are pruned; readers keep a cursor
+                stmt.executeUpdate(
+                        "CREATE TABLE IF NOT EXISTS timer_changes (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                                "server TEXT NOT NULL, " +
+                                "type TEXT NOT NULL, " +
+                                "uuid TEXT NOT NULL, " +
+                                "world TEXT NOT NULL, " +
+                                "seconds_used BIGINT NOT NULL, " +
+                                "cooldown_until BIGINT NOT NULL, " +
+                                "seconds_added BIGINT NOT NULL, " +
+                                "changed_at BIGINT NOT NULL" +
                                 ")"
                 );
+                stmt.executeUpdate(
+                        "CREATE INDEX IF NOT EXISTS idx_timer_changes_changed ON timer_changes (changed_at)"
+                );
+            }
+            PluginConfig config = plugin.getPluginConfig();
+            // Rows other servers write never reach the filter, and a stale miss would be saved over them
+            if (config.isSqliteShared() || config.isSyncEnabled()) {
+                plugin.getLogger().info("Database is shared with other servers, timer reads always query it.");
+            } else {
+                rebuildRowFilter();
             }
             plugin.getLogger().info("SQLite storage initialized.");
         } catch (SQLException e) {
@@ -76,6 +164,11 @@ public class SQLiteStorage implements StorageManager {
 
     @Override
     public PlayerTimerData loadData(UUID playerUuid, String worldName) {
+        // Definitely no row stored for this key, skip the query
+        TimerRowFilter filter = rowFilter;
+        if (filter != null && !filter.mightContain(playerUuid, worldName)) {
+            return new PlayerTimerData(playerUuid, worldName.toLowerCase(), 0, 0);
+        }
         try (PreparedStatement ps = connection.prepareStatement(
                 "SELECT seconds_used, cooldown_until FROM timer_data WHERE uuid = ? AND world = ?")) {
             ps.setString(1, playerUuid.toString());
@@ -95,46 +188,112 @@ public class SQLiteStorage implements StorageManager {
         return new PlayerTimerData(playerUuid, worldName.toLowerCase(), 0, 0);
     }
 
+    @Override
+    public List<PlayerTimerData> loadData(Map<UUID, String> playerWorlds) {
+        Map<UUID, PlayerTimerData> found = new HashMap<>();
+        List<UUID> uuids = new ArrayList<>(playerWorlds.keySet());
+        for (int start = 0; start < uuids.size(); start += BATCH_LOAD_SIZE) {
+            List<UUID> chunk = uuids.subList(start, Math.min(start + BATCH_LOAD_SIZE, uuids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT uuid, world, seconds_used, cooldown_until FROM timer_data WHERE uuid IN (" + placeholders + ")")) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i).toString());
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    UUID uuid = UUID.fromString(rs.getString("uuid"));
+                    String world = rs.getString("world");
+                    // Only keep the row for the world this player is in
+                    if (world.equalsIgnoreCase(playerWorlds.get(uuid))) {
+                        found.put(uuid, new PlayerTimerData(uuid, world,
+                                rs.getLong("seconds_used"), rs.getLong("cooldown_until")));
+                    }
+                }
+            } catch (SQLException | IllegalArgumentException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to batch load timer data for " + chunk.size() + " player(s)", e);
+            }
+        }
+
+        List<PlayerTimerData> result = new ArrayList<>(playerWorlds.size());
+        for (Map.Entry<UUID, String> entry : playerWorlds.entrySet()) {
+            PlayerTimerData data = found.get(entry.getKey());
+            result.add(data != null ? data
+                    : new PlayerTimerData(entry.getKey(), entry.getValue().toLowerCase(), 0, 0));
+        }
+        return result;
+    }
+
     @Override
     public void saveData(PlayerTimerData data) {
+        // Filter update and write happen under one lock so a concurrent rebuild never misses the row
+        synchronized (writeLock) {
+            markRow(data.getPlayerUuid(), data.getWorldName());
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO timer_data (uuid, world, seconds_used, cooldown_until) VALUES (?, ?, ?, ?) " +
+                            "ON CONFLICT(uuid, world) DO UPDATE SET seconds_used = ?, cooldown_until = ?")) {
+                ps.setString(1, data.getPlayerUuid().toString());
+                ps.setString(2, data.getWorldName().toLowerCase());
+                ps.setLong(3, data.getSecondsUsed());
+                ps.setLong(4, data.getCooldownUntil());
+                ps.setLong(5, data.getSecondsUsed());
+                ps.setLong(6, data.getCooldownUntil());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to save timer data for " + data.getPlayerUuid(), e);
+            }
+            scheduleRowFilterRebuildIfSaturated();
+        }
+    }
+
+    @Override
+    public List<PlayerTimerData> loadActiveCooldowns(long nowEpochSeconds) {
+        List<PlayerTimerData> result = new ArrayList<>();
         try (PreparedStatement ps = connection.prepareStatement(
-                "INSERT INTO timer_data (uuid, world, seconds_used, cooldown_until) VALUES (?, ?, ?, ?) " +
-                        "ON CONFLICT(uuid, world) DO UPDATE SET seconds_used = ?, cooldown_until = ?")) {
-            ps.setString(1, data.getPlayerUuid().toString());
-            ps.setString(2, data.getWorldName().toLowerCase());
-            ps.setLong(3, data.getSecondsUsed());
-            ps.setLong(4, data.getCooldownUntil());
-            ps.setLong(5, data.getSecondsUsed());
-            ps.setLong(6, data.getCooldownUntil());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to save timer data for " + data.getPlayerUuid(), e);
+                "SELECT uuid, world, seconds_used, cooldown_until FROM timer_data WHERE cooldown_until > ?")) {
+            ps.setLong(1, nowEpochSeconds);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(new PlayerTimerData(
+                        UUID.fromString(rs.getString("uuid")),
+                        rs.getString("world"),
+                        rs.getLong("seconds_used"),
+                        rs.getLong("cooldown_until")
+                ));
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load active cooldowns", e);
         }
+        return result;
     }
 
     @Override
     public void resetData(UUID playerUuid, String worldName) {
-        try (PreparedStatement ps = connection.prepareStatement(
-                "DELETE FROM timer_data WHERE uuid = ? AND world = ?")) {
-            ps.setString(1, playerUuid.toString());
-            ps.setString(2, worldName.toLowerCase());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to reset timer data for " + playerUuid, e);
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM timer_data WHERE uuid = ? AND world = ?")) {
+                ps.setString(1, playerUuid.toString());
+                ps.setString(2, worldName.toLowerCase());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to reset timer data for " + playerUuid, e);
+            }
         }
     }
 
     @Override
     public void saveLastWorld(UUID playerUuid, String worldName) {
-        try (PreparedStatement ps = connection.prepareStatement(
-                "INSERT INTO player_worlds (uuid, last_world) VALUES (?, ?) " +
-                        "ON CONFLICT(uuid) DO UPDATE SET last_world = ?")) {
-            ps.setString(1, playerUuid.toString());
-            ps.setString(2, worldName);
-            ps.setString(3, worldName);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to save last world for " + playerUuid, e);
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO player_worlds (uuid, last_world, updated_at) VALUES (?, ?, ?) " +
+                            "ON CONFLICT(uuid) DO UPDATE SET last_world = excluded.last_world, updated_at = excluded.updated_at")) {
+                ps.setString(1, playerUuid.toString());
+                ps.setString(2, worldName);
+                ps.setLong(3, plugin.getClock().seconds());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to save last world for " + playerUuid, e);
+            }
         }
     }
 
@@ -155,26 +314,24 @@ public class SQLiteStorage implements StorageManager {
 
     @Override
     public void saveReturnLocation(UUID playerUuid, Location location) {
-        if (location == null || location.getWorld() == null) return;
-        try (PreparedStatement ps = connection.prepareStatement(
-                "INSERT INTO return_locations (uuid, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?) " +
-                        "ON CONFLICT(uuid) DO UPDATE SET world = ?, x = ?, y = ?, z = ?, yaw = ?, pitch = ?")) {
-            ps.setString(1, playerUuid.toString());
-            ps.setString(2, location.getWorld().getName());
-            ps.setDouble(3, location.getX());
-            ps.setDouble(4, location.getY());
-            ps.setDouble(5, location.getZ());
-            ps.setFloat(6, location.getYaw());
-            ps.setFloat(7, location.getPitch());
-            ps.setString(8, location.getWorld().getName());
-            ps.setDouble(9, location.getX());
-            ps.setDouble(10, location.getY());
-            ps.setDouble(11, location.getZ());
-            ps.setFloat(12, location.getYaw());
-            ps.setFloat(13, location.getPitch());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to save return location for " + playerUuid, e);
+        synchronized (writeLock) {
+            if (location == null || location.getWorld() == null) return;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO return_locations (uuid, world, x, y, z, yaw, pitch, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                            "ON CONFLICT(uuid) DO UPDATE SET world = excluded.world, x = excluded.x, y = excluded.y, " +
+                            "z = excluded.z, yaw = excluded.yaw, pitch = excluded.pitch, updated_at = excluded.updated_at")) {
+                ps.setString(1, playerUuid.toString());
+                ps.setString(2, location.getWorld().getName());
+                ps.setDouble(3, location.getX());
+                ps.setDouble(4, location.getY());
+                ps.setDouble(5, location.getZ());
+                ps.setFloat(6, location.getYaw());
+                ps.setFloat(7, location.getPitch());
+                ps.setLong(8, plugin.getClock().seconds());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to save return location for " + playerUuid, e);
+            }
         }
     }
 
@@ -205,12 +362,444 @@ public class SQLiteStorage implements StorageManager {
 
     @Override
     public void clearReturnLocation(UUID playerUuid) {
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM return_locations WHERE uuid = ?")) {
+                ps.setString(1, playerUuid.toString());
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to clear return location for " + playerUuid, e);
+            }
+        }
+    }
+
+    @Override
+    public void exportData(DataVisitor visitor) throws IOException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(EXPORT_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery("SELECT uuid, world, seconds_used, cooldown_until FROM timer_data")) {
+                while (rs.next()) {
+                    visitor.timer(new PlayerTimerData(UUID.fromString(rs.getString("uuid")), rs.getString("world"),
+                            rs.getLong("seconds_used"), rs.getLong("cooldown_until")));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT uuid, last_world FROM player_worlds")) {
+                while (rs.next()) {
+                    visitor.lastWorld(UUID.fromString(rs.getString("uuid")), rs.getString("last_world"));
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT uuid, world, x, y, z, yaw, pitch FROM return_locations")) {
+                while (rs.next()) {
+                    visitor.returnLocation(UUID.fromString(rs.getString("uuid")), new StoredLocation(rs.getString("world"),
+                            rs.getDouble("x"), rs.getDouble("y"), rs.getDouble("z"), rs.getFloat("yaw"), rs.getFloat("pitch")));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            throw new IOException("Failed to read stored data", e);
+        }
+    }
+
+    @Override
+    public boolean importData(DataBatch batch) {
+        // Same lock as every other write: nothing else lands inside this transaction,
+        // and the row filter sees every imported key
+        synchronized (writeLock) {
+            // Keys go into the filter before the rows are written, like in saveData
+            for (PlayerTimerData data : batch.getTimers()) {
+                markRow(data.getPlayerUuid(), data.getWorldName());
+            }
+            try {
+                connection.setAutoCommit(false);
+                try (PreparedStatement timers = connection.prepareStatement(
+                        "INSERT INTO timer_data (uuid, world, seconds_used, cooldown_until) VALUES (?, ?, ?, ?) " +
+                                "ON CONFLICT(uuid, world) DO UPDATE SET seconds_used = excluded.seconds_used, " +
+                                "cooldown_until = excluded.cooldown_until");
+                     PreparedStatement worlds = connection.prepareStatement(
+                             "INSERT INTO player_worlds (uuid, last_world, updated_at) VALUES (?, ?, ?) " +
+                                     "ON CONFLICT(uuid) DO UPDATE SET last_world = excluded.last_world, " +
+                                     "updated_at = excluded.updated_at");
+                     PreparedStatement locations = connection.prepareStatement(
+                             "INSERT INTO return_locations (uuid, world, x, y, z, yaw, pitch, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                                     "ON CONFLICT(uuid) DO UPDATE SET world = excluded.world, x = excluded.x, " +
+                                     "y = excluded.y, z = excluded.z, yaw = excluded.yaw, pitch = excluded.pitch, " +
+                                     "updated_at = excluded.updated_at")) {
+                    // Imported rows count as written now, so retention does not drop them straight away
+                    long now = plugin.getClock().seconds();
+                    for (PlayerTimerData data : batch.getTimers()) {
+                        timers.setString(1, data.getPlayerUuid().toString());
+                        timers.setString(2, data.getWorldName().toLowerCase());
+                        timers.setLong(3, data.getSecondsUsed());
+                        timers.setLong(4, data.getCooldownUntil());
+                        timers.addBatch();
+                    }
+                    for (Map.Entry<UUID, String> entry : batch.getLastWorlds().entrySet()) {
+                        worlds.setString(1, entry.getKey().toString());
+                        worlds.setString(2, entry.getValue());
+                        worlds.setLong(3, now);
+                        worlds.addBatch();
+                    }
+                    for (Map.Entry<UUID, StoredLocation> entry : batch.getReturnLocations().entrySet()) {
+                        StoredLocation loc = entry.getValue();
+                        locations.setString(1, entry.getKey().toString());
+                        locations.setString(2, loc.world());
+                        locations.setDouble(3, loc.x());
+                        locations.setDouble(4, loc.y());
+                        locations.setDouble(5, loc.z());
+                        locations.setFloat(6, loc.yaw());
+                        locations.setFloat(7, loc.pitch());
+                        locations.setLong(8, now);
+                        locations.addBatch();
+                    }
+                    timers.executeBatch();
+                    worlds.executeBatch();
+                    locations.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to import " + batch.size() + " row(s)", e);
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to roll back import batch", rollbackError);
+                }
+                return false;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to restore auto-commit", e);
+                }
+            }
+
+            scheduleRowFilterRebuildIfSaturated();
+            return true;
+        }
+    }
+
+    /**
+     * Records a timer_data key in the row filter, and in its replacement while one is being built.
+     * Callers hold {@link #writeLock}.
+     */
+    private void markRow(UUID playerUuid, String worldName) {
+        TimerRowFilter filter = rowFilter;
+        if (filter != null) {
+            filter.put(playerUuid, worldName);
+        }
+        TimerRowFilter pending = pendingRowFilter;
+        if (pending != null) {
+            pending.put(playerUuid, worldName);
+        }
+    }
+
+    /**
+     * Starts a background rebuild once the filter has taken more keys than it was sized for.
+     * The replacement is sized at twice the old filter and is swapped in when the scan is done;
+     * until then the saturated filter keeps answering, only with more false positives.
+     * Callers hold {@link #writeLock}.
+     */
+    private void scheduleRowFilterRebuildIfSaturated() {
+        TimerRowFilter filter = rowFilter;
+        if (filter == null || pendingRowFilter != null || !filter.isSaturated()) return;
+        StorageExecutor executor = plugin.getStorageExecutor();
+        if (executor == null) return;
+
+        TimerRowFilter replacement = new TimerRowFilter(filter.getExpectedInsertions() * 2, ROW_FILTER_FPP);
+        pendingRowFilter = replacement;
+        executor.submit("row filter rebuild", () -> {
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT uuid, world FROM timer_data")) {
+                while (rs.next()) {
+                    replacement.put(UUID.fromString(rs.getString("uuid")), rs.getString("world"));
+                }
+            }
+            return null;
+        }, ROW_FILTER_REBUILD_TIMEOUT_MILLIS).whenComplete((ignored, error) -> {
+            synchronized (writeLock) {
+                if (pendingRowFilter != replacement) return;
+                pendingRowFilter = null;
+                if (error == null) {
+                    rowFilter = replacement;
+                } else {
+                    rowFilter = null;
+                    plugin.getLogger().log(Level.WARNING, "Failed to rebuild timer data filter, reads will always query", error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Builds the timer_data row filter from the table, sized at twice the current row count.
+     * Called on startup, before the plugin starts saving.
+     */
+    private void rebuildRowFilter() {
+        synchronized (writeLock) {
+            try (Statement stmt = connection.createStatement()) {
+                int rows = 0;
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM timer_data")) {
+                    if (rs.next()) {
+                        rows = rs.getInt(1);
+                    }
+                }
+                TimerRowFilter filter = new TimerRowFilter(
+                        Math.max(ROW_FILTER_MIN_CAPACITY, rows * 2), ROW_FILTER_FPP);
+                try (ResultSet rs = stmt.executeQuery("SELECT uuid, world FROM timer_data")) {
+                    while (rs.next()) {
+                        filter.put(UUID.fromString(rs.getString("uuid")), rs.getString("world"));
+                    }
+                }
+                rowFilter = filter;
+            } catch (SQLException | IllegalArgumentException e) {
+                rowFilter = null;
+                plugin.getLogger().log(Level.WARNING, "Failed to build timer data filter, reads will always query", e);
+            }
+        }
+    }
+
+    /**
+     * Switches the database to incremental auto-vacuum, so {@link #compact(int)} can return
+     * free pages in small steps. The mode only takes effect on a new database or after a full
+     * VACUUM; that rewrites the whole file and blocks every other access, so it is left to the
+     * server owner rather than run on startup.
+     */
+    private void enableIncrementalVacuum(Statement stmt) throws SQLException {
+        if (queryInt(stmt, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            if (queryInt(stmt, "PRAGMA page_count") > 0) {
+                plugin.getLogger().info("Database predates incremental vacuum; free space is only returned "
+                        + "after running VACUUM on data.db once while the server is stopped.");
+            }
+        }
+        incrementalVacuum = queryInt(stmt, "PRAGMA auto_vacuum") == AUTO_VACUUM_INCREMENTAL;
+    }
+
+    /**
+     * Adds an epoch-second column to a table created by an older version, filled with the given value.
+     */
+    private void addColumnIfMissing(Statement stmt, String table, String column, long value) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (rs.getString("name").equalsIgnoreCase(column)) return;
+            }
+        }
+        stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " BIGINT NOT NULL DEFAULT 0");
+        stmt.executeUpdate("UPDATE " + table + " SET " + column + " = " + value);
+        plugin.getLogger().info("Added column " + column + " to " + table + ".");
+    }
+
+    private static int queryInt(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public void appendSessionHistory(List<SessionRecord> records) {
+        synchronized (writeLock) {
+            if (records.isEmpty()) return;
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO session_history (uuid, world, entered_at, exited_at, seconds_consumed, limit_seconds, end_reason) VALUES ");
+            for (int i = 0; i < records.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?)");
+            }
+            try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                int i = 1;
+                for (SessionRecord record : records) {
+                    ps.setString(i++, record.getPlayerUuid().toString());
+                    ps.setString(i++, record.getWorldName());
+                    ps.setLong(i++, record.getEnteredAt());
+                    ps.setLong(i++, record.getExitedAt());
+                    ps.setLong(i++, record.getSecondsConsumed());
+                    ps.setLong(i++, record.getLimitAtEntry());
+                    ps.setString(i++, record.getEndReason().name());
+                }
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to write " + records.size() + " session history row(s)", e);
+            }
+        }
+    }
+
+    @Override
+    public int pruneSessionHistory(long olderThanEpochSeconds) {
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM session_history WHERE exited_at < ?")) {
+                ps.setLong(1, olderThanEpochSeconds);
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prune session history", e);
+            }
+            return 0;
+        }
+    }
+
+    @Override
+    public int pruneIdleTimers(long nowEpochSeconds, int limit) {
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM timer_data WHERE rowid IN (SELECT rowid FROM timer_data " +
+                            "WHERE seconds_used = 0 AND cooldown_until < ? LIMIT ?)")) {
+                ps.setLong(1, nowEpochSeconds);
+                ps.setInt(2, limit);
+                // Deleted keys stay in the row filter; a false positive only costs a query
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prune idle timer data", e);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int prunePlayerState(long olderThanEpochSeconds, int limit) {
+        synchronized (writeLock) {
+            try (PreparedStatement worlds = connection.prepareStatement(
+                    "DELETE FROM player_worlds WHERE rowid IN (SELECT rowid FROM player_worlds " +
+                            "WHERE updated_at < ? LIMIT ?)");
+                 PreparedStatement locations = connection.prepareStatement(
+                         "DELETE FROM return_locations WHERE rowid IN (SELECT rowid FROM return_locations " +
+                                 "WHERE updated_at < ? LIMIT ?)")) {
+                worlds.setLong(1, olderThanEpochSeconds);
+                worlds.setInt(2, limit);
+                int pruned = worlds.executeUpdate();
+                locations.setLong(1, olderThanEpochSeconds);
+                locations.setInt(2, Math.max(0, limit - pruned));
+                return pruned + locations.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prune player state", e);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int compact(int maxPages) {
+        int freed = 0;
+        try (Statement stmt = connection.createStatement()) {
+            if (incrementalVacuum) {
+                // The pragma frees one page per step and a driver may stop after the first,
+                // so it is repeated until the pages are freed or nothing more is; the lock
+                // is only held per statement, keeping saves from waiting on the whole run
+                int remaining = queryInt(stmt, "PRAGMA freelist_count");
+                while (freed < maxPages && remaining > 0) {
+                    synchronized (writeLock) {
+                        stmt.execute("PRAGMA incremental_vacuum(" + (maxPages - freed) + ")");
+                    }
+                    int after = queryInt(stmt, "PRAGMA freelist_count");
+                    if (after >= remaining) break;
+                    freed += remaining - after;
+                    remaining = after;
+                }
+            }
+            // Refreshes planner statistics only for tables whose contents changed enough
+            synchronized (writeLock) {
+                stmt.execute("PRAGMA optimize");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to compact database", e);
+        }
+        return freed;
+    }
+
+    @Override
+    public void appendChanges(List<TimerChange> changes) {
+        synchronized (writeLock) {
+            for (int start = 0; start < changes.size(); start += CHANGE_BATCH_SIZE) {
+                List<TimerChange> chunk = changes.subList(start, Math.min(start + CHANGE_BATCH_SIZE, changes.size()));
+                StringBuilder sql = new StringBuilder("INSERT INTO timer_changes (server, type, uuid, world, seconds_used, "
+                        + "cooldown_until, seconds_added, changed_at) VALUES ");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?)");
+                }
+                try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                    int i = 1;
+                    for (TimerChange change : chunk) {
+                        ps.setString(i++, change.getServer());
+                        ps.setString(i++, change.getType().name());
+                        ps.setString(i++, change.getPlayerUuid().toString());
+                        ps.setString(i++, change.getWorldName().toLowerCase());
+                        ps.setLong(i++, change.getSecondsUsed());
+                        ps.setLong(i++, change.getCooldownUntil());
+                        ps.setLong(i++, change.getSecondsAdded());
+                        ps.setLong(i++, change.getChangedAt());
+                    }
+                    ps.executeUpdate();
+                } catch (SQLException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to write " + chunk.size() + " change feed row(s)", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<TimerChange> loadChanges(long afterId, int limit) {
+        List<TimerChange> result = new ArrayList<>();
         try (PreparedStatement ps = connection.prepareStatement(
-                "DELETE FROM return_locations WHERE uuid = ?")) {
-            ps.setString(1, playerUuid.toString());
-            ps.executeUpdate();
+                "SELECT id, server, type, uuid, world, seconds_used, cooldown_until, seconds_added, changed_at " +
+                        "FROM timer_changes WHERE id > ? ORDER BY id LIMIT ?")) {
+            ps.setLong(1, afterId);
+            ps.setInt(2, limit);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                result.add(new TimerChange(
+                        rs.getLong("id"),
+                        rs.getString("server"),
+                        TimerChange.Type.valueOf(rs.getString("type")),
+                        UUID.fromString(rs.getString("uuid")),
+                        rs.getString("world"),
+                        rs.getLong("seconds_used"),
+                        rs.getLong("cooldown_until"),
+                        rs.getLong("seconds_added"),
+                        rs.getLong("changed_at")
+                ));
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read the change feed", e);
+        }
+        return result;
+    }
+
+    @Override
+    public long latestChangeId() {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM timer_changes")) {
+            return rs.next() ? rs.getLong(1) : 0;
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Failed to clear return location for " + playerUuid, e);
+            plugin.getLogger().log(Level.WARNING, "Failed to read the change feed position", e);
+        }
+        return 0;
+    }
+
+    @Override
+    public int pruneChanges(long olderThanEpochSeconds) {
+        synchronized (writeLock) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "DELETE FROM timer_changes WHERE changed_at < ?")) {
+                ps.setLong(1, olderThanEpochSeconds);
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to prune the change feed", e);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Turns the row filter off for good, e.g. when a reload enables sync. Turning it back on
+     * needs a restart, since building it scans the whole table.
+     */
+    public void disableRowFilter() {
+        synchronized (writeLock) {
+            rowFilter = null;
+            pendingRowFilter = null;
+        }
+    }
+
+    @Override
+    public void noteRemoteKey(UUID playerUuid, String worldName) {
+        // The filter only knows rows written through this connection
+        synchronized (writeLock) {
+            markRow(playerUuid, worldName);
         }
     }
 }
@@ -0,0 +1,62 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.util.UUID;
+
+/**
+ * One completed visit to a timed world, as written to the session history table.
+ */
+public class SessionRecord {
+
+    public enum EndReason {
+        EXIT,
+        EXPIRE,
+        RESET
+    }
+
+    private final UUID playerUuid;
+    private final String worldName;
+    private final long enteredAt; // epoch seconds
+    private final long exitedAt; // epoch seconds
+    private final long secondsConsumed;
+    private final long limitAtEntry; // -1 = unlimited
+    private final EndReason endReason;
+
+    public SessionRecord(UUID playerUuid, String worldName, long enteredAt, long exitedAt,
+                         long secondsConsumed, long limitAtEntry, EndReason endReason) {
+        this.playerUuid = playerUuid;
+        this.worldName = worldName;
+        this.enteredAt = enteredAt;
+        this.exitedAt = exitedAt;
+        this.secondsConsumed = secondsConsumed;
+        this.limitAtEntry = limitAtEntry;
+        this.endReason = endReason;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getEnteredAt() {
+        return enteredAt;
+    }
+
+    public long getExitedAt() {
+        return exitedAt;
+    }
+
+    public long getSecondsConsumed() {
+        return secondsConsumed;
+    }
+
+    public long getLimitAtEntry() {
+        return limitAtEntry;
+    }
+
+    public EndReason getEndReason() {
+        return endReason;
+    }
+}
@@ -0,0 +1,200 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs blocking {@link StorageManager} calls off the main thread.
+ * On Java 21+ each operation gets its own virtual thread; otherwise a bounded platform
+ * pool is used. Either way at most {@code maxConcurrency} operations touch storage at once,
+ * so a burst cannot pin every carrier thread on the JDBC driver's locks.
+ * <p>
+ * Every operation has a timeout. When the returned future times out or is cancelled by
+ * the caller, the worker thread is interrupted.
+ */
+public class StorageExecutor {
+
+    private final Logger logger;
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final long defaultTimeoutMillis;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public StorageExecutor(Logger logger, boolean preferVirtualThreads, int maxConcurrency, int queueSize,
+                           long defaultTimeoutMillis) {
+        this.logger = logger;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency);
+        this.defaultTimeoutMillis = Math.max(1, defaultTimeoutMillis);
+
+        ExecutorService virtualExecutor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+            this.virtual = true;
+        } else {
+            this.executor = new ThreadPoolExecutor(this.maxConcurrency, this.maxConcurrency, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueSize)), new NamedThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+            this.virtual = false;
+        }
+    }
+
+    /**
+     * Runs a storage operation with the default timeout.
+     */
+    public <T> CompletableFuture<T> submit(String operation, Callable<T> task) {
+        return submit(operation, task, defaultTimeoutMillis);
+    }
+
+    /**
+     * Runs a storage operation. The future completes exceptionally with a
+     * {@link TimeoutException} if it does not finish in time, and with a
+     * {@link RejectedExecutionException} if the fallback pool's queue is full.
+     */
+    public <T> CompletableFuture<T> submit(String operation, Callable<T> task, long timeoutMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submitted.incrementAndGet();
+        pending.incrementAndGet();
+        Future<?> worker;
+        try {
+            worker = executor.submit(() -> {
+                try {
+                    if (result.isDone()) return; // cancelled or timed out while queued
+                    permits.acquire();
+                    try {
+                        result.complete(task.call());
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    } finally {
+                        permits.release();
+                    }
+                } catch (InterruptedException e) {
+                    result.cancel(false);
+                } finally {
+                    // After complete(), so callbacks attached before completion have already run
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            rejected.incrementAndGet();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if (error == null) return;
+            if (error instanceof TimeoutException) {
+                timedOut.incrementAndGet();
+                logger.warning("Storage operation '" + operation + "' timed out after " + timeoutMillis + " ms");
+            }
+            // Timed out or cancelled by the caller: stop the worker if it is still running
+            worker.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Runs a storage operation without a result, with the default timeout.
+     */
+    public CompletableFuture<Void> run(String operation, Runnable task) {
+        return submit(operation, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting work and waits for running operations. Called on shutdown, before
+     * the storage backend is closed.
+     */
+    public void shutdown(long awaitMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(awaitMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("Storage operations still running after " + awaitMillis + " ms, interrupting them.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Returns the number of operations submitted but not yet finished, queued ones included.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    public int getInFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor() reflectively so the plugin
+     * still builds and runs on Java 17.
+     */
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null; // Java 17-20
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not create virtual thread executor, using a thread pool", e);
+            return null;
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "WorldTimer-storage-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.blueobsidian.worldTimer.storage;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Deletes stale rows under the retention rules and compacts the database on an async task.
+ * Rows go in small batches with a pause in between, so no delete holds the database long
+ * enough to stall saves from the main thread. A run stops early while the server is over
+ * its tick budget and picks up where it left off on the next one.
+ */
+public class StorageMaintenance {
+
+    // Ticks after startup before the first run, so it does not compete with joins
+    private static final long STARTUP_DELAY_TICKS = 20L * 60;
+    // Upper bound on batches per table per run
+    private static final int MAX_BATCHES_PER_RUN = 200;
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+
+    private volatile int batchSize = 500;
+    private volatile long batchPauseMillis = 50;
+    private volatile long playerStateRetentionSeconds;
+    private volatile int vacuumPages = 1000;
+    private BukkitTask task;
+    // Set on stop, so a pass in progress ends after its current batch
+    private volatile boolean stopped;
+    // Bumped on stop, so a run the cancelled task had already begun does nothing
+    private volatile int generation;
+    // Held for the length of a pass; stop waits on it
+    private final ReentrantLock passLock = new ReentrantLock();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong timersPruned = new AtomicLong();
+    private final AtomicLong playerStatePruned = new AtomicLong();
+    private final AtomicLong pagesFreed = new AtomicLong();
+
+    public StorageMaintenance(WorldTimer plugin, StorageManager storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+    }
+
+    /**
+     * (Re)applies maintenance settings from the config and (re)starts the task.
+     */
+    public void start() {
+        stop();
+        stopped = false;
+        PluginConfig config = plugin.getPluginConfig();
+        configure(config.getMaintenanceBatchSize(), config.getMaintenanceBatchPauseMillis(),
+                config.getPlayerStateRetentionDays(), config.getMaintenanceVacuumPages());
+        if (!config.isMaintenanceEnabled()) return;
+        long intervalTicks = Math.max(1, config.getMaintenanceIntervalMinutes()) * 60L * 20L;
+        int started = generation;
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(
+                plugin, () -> runScheduled(started), Math.min(STARTUP_DELAY_TICKS, intervalTicks), intervalTicks);
+    }
+
+    /**
+     * Cancels the task and waits for a pass already running to stop after the batch it is
+     * on, so nothing touches storage once this returns and a restart never overlaps it.
+     */
+    public void stop() {
+        stopped = true;
+        generation++;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        long awaitMillis = plugin.getPluginConfig().getStorageTimeoutMillis();
+        try {
+            if (passLock.tryLock(awaitMillis, TimeUnit.MILLISECONDS)) {
+                passLock.unlock();
+            } else {
+                plugin.getLogger().warning("Storage maintenance pass still running after " + awaitMillis + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void configure(int batchSize, long batchPauseMillis, int playerStateRetentionDays, int vacuumPages) {
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+        this.playerStateRetentionSeconds = Math.max(0, playerStateRetentionDays) * 86400L;
+        this.vacuumPages = Math.max(0, vacuumPages);
+    }
+
+    private void runScheduled(int started) {
+        passLock.lock();
+        try {
+            if (started == generation && !stopped) {
+                pass();
+            }
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    /**
+     * Runs one maintenance pass: idle timer rows, then old player state, then compaction.
+     * Blocking; called on the async task, or directly by tests.
+     */
+    public void run() {
+        passLock.lock();
+        try {
+            pass();
+        } finally {
+            passLock.unlock();
+        }
+    }
+
+    private void pass() {
+        runs.incrementAndGet();
+        long now = plugin.getClock().seconds();
+        int timers = prune(limit -> storage.pruneIdleTimers(now, limit));
+        timersPruned.addAndGet(timers);
+
+        int states = 0;
+        if (playerStateRetentionSeconds > 0) {
+            long cutoff = now - playerStateRetentionSeconds;
+            states = prune(limit -> storage.prunePlayerState(cutoff, limit));
+            playerStatePruned.addAndGet(states);
+        }
+
+        if (stopped) return;
+        int freed = storage.compact(vacuumPages);
+        pagesFreed.addAndGet(freed);
+        if (timers > 0 || states > 0 || freed > 0) {
+            plugin.getLogger().info("Storage maintenance removed " + timers + " idle timer row(s) and "
+                    + states + " stale player state row(s), freed " + freed + " page(s).");
+        }
+    }
+
+    /**
+     * Calls the delete until it removes less than a full batch, the run's batch limit is
+     * reached or the server goes over its tick budget. Returns the rows removed.
+     */
+    private int prune(IntUnaryOperator deleteBatch) {
+        int total = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            if (stopped || plugin.getTickBudget().isDegraded()) break;
+            int deleted = deleteBatch.applyAsInt(batchSize);
+            total += deleted;
+            if (deleted < batchSize) break;
+            if (batchPauseMillis > 0) {
+                try {
+                    Thread.sleep(batchPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getTimersPruned() {
+        return timersPruned.get();
+    }
+
+    public long getPlayerStatePruned() {
+        return playerStatePruned.get();
+    }
+
+    public long getPagesFreed() {
+        return pagesFreed.get();
+    }
+}
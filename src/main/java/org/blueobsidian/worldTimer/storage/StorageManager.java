@@ -1,6 +1,10 @@
 package org.blueobsidian.worldTimer.storage;
 
 import org.bukkit.Location;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface StorageManager {
@@ -21,11 +25,24 @@ public interface StorageManager {
      */
     PlayerTimerData loadData(UUID playerUuid, String worldName);
 
+    /**
+     * Load timer data for many players at once, each in the world given for them.
+     * Players without a stored entry get a new default entry, so the result has one
+     * entry per player.
+     */
+    List<PlayerTimerData> loadData(Map<UUID, String> playerWorlds);
+
     /**
      * Save timer data for a player in a specific world.
      */
     void saveData(PlayerTimerData data);
 
+    /**
+     * Load all timer entries whose cooldown ends after the given epoch second.
+     * Used to warm the in-memory cooldown ledger on startup.
+     */
+    List<PlayerTimerData> loadActiveCooldowns(long nowEpochSeconds);
+
     /**
      * Reset timer data (seconds used and cooldown) for a player in a specific world.
      */
@@ -58,4 +75,76 @@ public interface StorageManager {
      * Clear the saved return location for a player.
      */
     void clearReturnLocation(UUID playerUuid);
+
+    /**
+     * Append completed sessions to the session history table in a single batch.
+     */
+    void appendSessionHistory(List<SessionRecord> records);
+
+    /**
+     * Delete session history rows that ended before the given epoch second.
+     * Returns the number of rows removed.
+     */
+    int pruneSessionHistory(long olderThanEpochSeconds);
+
+    /**
+     * Delete up to limit timer rows with no time used and a cooldown that ended before the
+     * given epoch second. Such rows read the same as a missing one.
+     * Returns the number of rows removed.
+     */
+    int pruneIdleTimers(long nowEpochSeconds, int limit);
+
+    /**
+     * Delete up to limit last worlds and return locations last written before the given
+     * epoch second. Backends that do not record write times keep everything and return 0.
+     */
+    int prunePlayerState(long olderThanEpochSeconds, int limit);
+
+    /**
+     * Return up to maxPages free pages to the file system and refresh query planner
+     * statistics, where the backend has either. Returns the number of pages freed.
+     */
+    int compact(int maxPages);
+
+    /**
+     * Append changes to the change feed table other servers poll, keeping their order.
+     */
+    void appendChanges(List<TimerChange> changes);
+
+    /**
+     * Load up to limit change feed rows with an id above the given one, oldest first.
+     * Backends that are not shared between servers return an empty list.
+     */
+    List<TimerChange> loadChanges(long afterId, int limit);
+
+    /**
+     * Returns the id of the newest change feed row, or 0 if there is none.
+     */
+    long latestChangeId();
+
+    /**
+     * Delete change feed rows written before the given epoch second.
+     * Returns the number of rows removed.
+     */
+    int pruneChanges(long olderThanEpochSeconds);
+
+    /**
+     * Record that another server has written the timer row for this key, so a backend that
+     * remembers which rows exist reads it instead of assuming the default.
+     */
+    void noteRemoteKey(UUID playerUuid, String worldName);
+
+    /**
+     * Stream every timer row, last world and return location to the visitor, table by table.
+     * Rows are read through a cursor or in chunks, so no table is held in memory at once.
+     * Runs on the calling thread; errors from the visitor stop the export.
+     */
+    void exportData(DataVisitor visitor) throws IOException;
+
+    /**
+     * Write a batch of imported rows, replacing stored rows with the same key.
+     * Backends that support transactions write the batch in one.
+     * Returns false if the batch could not be written.
+     */
+    boolean importData(DataBatch batch);
 }
@@ -0,0 +1,14 @@
+package org.blueobsidian.worldTimer.storage;
+
+import org.bukkit.Location;
+
+/**
+ * A location as stored, by world name, so it can be handled without the world being loaded.
+ */
+public record StoredLocation(String world, double x, double y, double z, float yaw, float pitch) {
+
+    public static StoredLocation of(Location location) {
+        return new StoredLocation(location.getWorld().getName(),
+                location.getX(), location.getY(), location.getZ(), location.getYaw(), location.getPitch());
+    }
+}
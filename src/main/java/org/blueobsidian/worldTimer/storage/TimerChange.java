@@ -0,0 +1,79 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.util.UUID;
+
+/**
+ * One change to a player's timer in a world, published to the other servers sharing the
+ * database through the change feed. Carries the values as written by the origin server, and
+ * for {@link Type#TIME_ADDED} the seconds given back, so a server running the player's live
+ * session can apply the difference instead of the origin's possibly older total.
+ */
+public class TimerChange {
+
+    public enum Type {
+        // A session ended or was saved; live sessions elsewhere are newer and keep their time
+        SESSION,
+        TIME_ADDED,
+        COOLDOWN,
+        RESET
+    }
+
+    private final long id; // position in the feed, 0 until stored
+    private final String server;
+    private final Type type;
+    private final UUID playerUuid;
+    private final String worldName;
+    private final long secondsUsed;
+    private final long cooldownUntil; // epoch seconds
+    private final long secondsAdded;
+    private final long changedAt; // epoch seconds
+
+    public TimerChange(long id, String server, Type type, UUID playerUuid, String worldName,
+                       long secondsUsed, long cooldownUntil, long secondsAdded, long changedAt) {
+        this.id = id;
+        this.server = server;
+        this.type = type;
+        this.playerUuid = playerUuid;
+        this.worldName = worldName;
+        this.secondsUsed = secondsUsed;
+        this.cooldownUntil = cooldownUntil;
+        this.secondsAdded = secondsAdded;
+        this.changedAt = changedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getSecondsUsed() {
+        return secondsUsed;
+    }
+
+    public long getCooldownUntil() {
+        return cooldownUntil;
+    }
+
+    public long getSecondsAdded() {
+        return secondsAdded;
+    }
+
+    public long getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,100 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Open-addressing hash index from a (uuid, world id) key to a record number in the
+ * flat-file timer store. Linear probing over parallel primitive arrays, kept at most
+ * half full. Records are never deleted, so there are no tombstones.
+ * Not thread-safe; the owner synchronizes access.
+ */
+public class TimerRecordIndex {
+
+    private static final int EMPTY = -1;
+
+    private long[] msb;
+    private long[] lsb;
+    private int[] worldIds;
+    private int[] records;
+    private int size;
+
+    public TimerRecordIndex(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the record number stored for a key, or -1 if the key is not indexed.
+     */
+    public int get(UUID uuid, int worldId) {
+        long hi = uuid.getMostSignificantBits();
+        long lo = uuid.getLeastSignificantBits();
+        int mask = records.length - 1;
+        for (int slot = hash(hi, lo, worldId) & mask; ; slot = (slot + 1) & mask) {
+            int record = records[slot];
+            if (record == EMPTY) {
+                return EMPTY;
+            }
+            if (msb[slot] == hi && lsb[slot] == lo && worldIds[slot] == worldId) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Maps a key to a record number. The key must not already be indexed.
+     */
+    public void put(UUID uuid, int worldId, int record) {
+        if ((size + 1) * 2 > records.length) {
+            resize();
+        }
+        insert(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), worldId, record);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(long hi, long lo, int worldId, int record) {
+        int mask = records.length - 1;
+        int slot = hash(hi, lo, worldId) & mask;
+        while (records[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        msb[slot] = hi;
+        lsb[slot] = lo;
+        worldIds[slot] = worldId;
+        records[slot] = record;
+    }
+
+    private void resize() {
+        long[] oldMsb = msb;
+        long[] oldLsb = lsb;
+        int[] oldWorldIds = worldIds;
+        int[] oldRecords = records;
+        allocate(oldRecords.length * 2);
+        for (int i = 0; i < oldRecords.length; i++) {
+            if (oldRecords[i] != EMPTY) {
+                insert(oldMsb[i], oldLsb[i], oldWorldIds[i], oldRecords[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        worldIds = new int[capacity];
+        records = new int[capacity];
+        Arrays.fill(records, EMPTY);
+    }
+
+    private static int hash(long hi, long lo, int worldId) {
+        // SplitMix64 finalizer over the combined key
+        long h = hi * 31 + lo + worldId * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return (int) (h ^ (h >>> 31));
+    }
+}
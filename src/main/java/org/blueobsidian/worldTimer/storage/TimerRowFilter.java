@@ -0,0 +1,96 @@
+package org.blueobsidian.worldTimer.storage;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the (uuid, world) keys stored in timer_data.
+ * A negative answer is definitive, so reads can skip the database for players
+ * that have never been saved. Entries are never removed; deleted rows only
+ * cost a false positive.
+ */
+public class TimerRowFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+    private final int expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public TimerRowFilter(int expectedInsertions, double falsePositiveRate) {
+        this.expectedInsertions = Math.max(1, expectedInsertions);
+        // Standard sizing: m = -n ln(p) / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.bitCount = (int) m;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    /**
+     * Adds a key. Re-adding a key that is already present does not count towards saturation.
+     */
+    public void put(UUID uuid, String worldName) {
+        long h1 = hash(uuid, worldName);
+        long h2 = mix(h1) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            changed |= setBit(bit);
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+    }
+
+    public boolean mightContain(UUID uuid, String worldName) {
+        long h1 = hash(uuid, worldName);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true once more keys were added than the filter was sized for,
+     * meaning the false-positive rate is drifting above target.
+     */
+    public boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    public int getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    private boolean setBit(int bit) {
+        int index = bit >>> 6;
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(index);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(index, current, current | mask));
+        return true;
+    }
+
+    private static long hash(UUID uuid, String worldName) {
+        long h = mix(uuid.getMostSignificantBits());
+        h = mix(h ^ uuid.getLeastSignificantBits());
+        return mix(h ^ worldName.toLowerCase().hashCode());
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,29 @@
+package org.blueobsidian.worldTimer.sync;
+
+import org.blueobsidian.worldTimer.storage.TimerChange;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Channel that carries timer changes between servers sharing one database, so each server
+ * can update its in-memory cooldowns, snapshots and live sessions without reloading rows.
+ */
+public interface ChangeFeed {
+
+    /**
+     * Starts delivering changes published by other servers, oldest first. The listener may
+     * be called on any thread.
+     */
+    void start(Consumer<List<TimerChange>> listener);
+
+    /**
+     * Queues a change for the other servers. Called on the main thread; never waits on I/O.
+     */
+    void publish(TimerChange change);
+
+    /**
+     * Stops delivery and sends changes still queued. Called on shutdown and reload.
+     */
+    void stop();
+}
@@ -0,0 +1,115 @@
+package org.blueobsidian.worldTimer.sync;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.storage.TimerChange;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Change feed through a table in the shared database. Published changes are queued in memory
+ * and appended on an async task, which then reads the rows added since its last poll by id.
+ * Each poll only touches the tail of the feed, never the timer rows themselves; rows older
+ * than the retention are pruned, so the table stays a few minutes long.
+ */
+public class DatabaseChangeFeed implements ChangeFeed {
+
+    // Feed rows read per query; a poll keeps reading until it has caught up
+    private static final int POLL_BATCH = 500;
+    private static final long PRUNE_INTERVAL_SECONDS = 60;
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+    private final String server;
+    private final long pollTicks;
+    private final long retentionSeconds;
+    private final Queue<TimerChange> outgoing = new ConcurrentLinkedQueue<>();
+
+    private volatile Consumer<List<TimerChange>> listener;
+    private BukkitTask task;
+    // Id of the last feed row seen; only the polling task moves it
+    private long cursor;
+    private long lastPruneAt;
+
+    public DatabaseChangeFeed(WorldTimer plugin, StorageManager storage, String server,
+                              long pollTicks, long retentionSeconds) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.server = server;
+        this.pollTicks = Math.max(1, pollTicks);
+        this.retentionSeconds = retentionSeconds;
+    }
+
+    @Override
+    public void start(Consumer<List<TimerChange>> listener) {
+        this.listener = listener;
+        // Changes from before this start are already in the rows loaded on demand
+        cursor = storage.latestChangeId();
+        task = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::poll, pollTicks, pollTicks);
+    }
+
+    @Override
+    public void publish(TimerChange change) {
+        outgoing.add(change);
+    }
+
+    @Override
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        listener = null;
+        flush();
+    }
+
+    /**
+     * Writes queued changes, then hands changes from other servers to the listener.
+     * Blocking; called on the async task, or directly by tests.
+     */
+    public synchronized void poll() {
+        flush();
+
+        Consumer<List<TimerChange>> target = listener;
+        List<TimerChange> received = new ArrayList<>();
+        List<TimerChange> page;
+        do {
+            page = storage.loadChanges(cursor, POLL_BATCH);
+            for (TimerChange change : page) {
+                cursor = change.getId();
+                // Our own rows come back too; the cursor still has to move past them
+                if (!server.equals(change.getServer())) {
+                    // The sender wrote this row to the shared database; a reset deleted it
+                    if (change.getType() != TimerChange.Type.RESET) {
+                        storage.noteRemoteKey(change.getPlayerUuid(), change.getWorldName());
+                    }
+                    received.add(change);
+                }
+            }
+        } while (page.size() == POLL_BATCH);
+        if (!received.isEmpty() && target != null) {
+            target.accept(received);
+        }
+
+        long now = plugin.getClock().seconds();
+        if (now - lastPruneAt >= PRUNE_INTERVAL_SECONDS) {
+            lastPruneAt = now;
+            storage.pruneChanges(now - retentionSeconds);
+        }
+    }
+
+    private synchronized void flush() {
+        if (outgoing.isEmpty()) return;
+        List<TimerChange> batch = new ArrayList<>(outgoing.size());
+        TimerChange change;
+        while ((change = outgoing.poll()) != null) {
+            batch.add(change);
+        }
+        storage.appendChanges(batch);
+    }
+}
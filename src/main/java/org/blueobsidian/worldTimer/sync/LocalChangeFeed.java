@@ -0,0 +1,42 @@
+package org.blueobsidian.worldTimer.sync;
+
+import org.blueobsidian.worldTimer.storage.TimerChange;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Change feed between servers in the same JVM, e.g. the plugin and a test standing in for
+ * another server. A published change is handed to every other started feed right away,
+ * on the publishing thread.
+ */
+public class LocalChangeFeed implements ChangeFeed {
+
+    private static final CopyOnWriteArrayList<LocalChangeFeed> FEEDS = new CopyOnWriteArrayList<>();
+
+    private volatile Consumer<List<TimerChange>> listener;
+
+    @Override
+    public void start(Consumer<List<TimerChange>> listener) {
+        this.listener = listener;
+        FEEDS.addIfAbsent(this);
+    }
+
+    @Override
+    public void publish(TimerChange change) {
+        List<TimerChange> changes = List.of(change);
+        for (LocalChangeFeed feed : FEEDS) {
+            Consumer<List<TimerChange>> target = feed.listener;
+            if (feed != this && target != null) {
+                target.accept(changes);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        FEEDS.remove(this);
+        listener = null;
+    }
+}
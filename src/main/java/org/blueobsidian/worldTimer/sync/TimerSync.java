@@ -0,0 +1,111 @@
+package org.blueobsidian.worldTimer.sync;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.storage.TimerChange;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps servers that share a database in step. {@link org.blueobsidian.worldTimer.timer.TimerManager}
+ * publishes every timer write through here, and changes from other servers are applied to
+ * the in-memory state on the main thread. Does nothing while sync is disabled.
+ */
+public class TimerSync {
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+
+    private volatile ChangeFeed feed;
+    private volatile String server = "";
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    public TimerSync(WorldTimer plugin, StorageManager storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+    }
+
+    /**
+     * (Re)applies sync settings from the config and (re)starts the feed.
+     */
+    public void start() {
+        stop();
+        PluginConfig config = plugin.getPluginConfig();
+        if (!config.isSyncEnabled()) return;
+
+        String channel = config.getSyncChannel().toLowerCase();
+        String storageType = config.getStorageType().toLowerCase();
+        // These backends keep their data to this server and never write the feed table
+        if (!channel.equals("local") && (storageType.equals("flatfile") || storageType.equals("memory"))) {
+            plugin.getLogger().warning("Timer sync over the " + channel + " channel needs a shared database, but storage "
+                    + "type is " + storageType + ". Sync stays off.");
+            return;
+        }
+
+        String configured = config.getSyncServerId();
+        server = configured.isEmpty() ? UUID.randomUUID().toString() : configured;
+        ChangeFeed started = switch (channel) {
+            case "local" -> new LocalChangeFeed();
+            default -> new DatabaseChangeFeed(plugin, storage, server,
+                    config.getSyncPollIntervalTicks(), config.getSyncRetentionMinutes() * 60L);
+        };
+        started.start(this::receive);
+        feed = started;
+        plugin.getLogger().info("Timer sync enabled over the " + channel + " channel as server '" + server + "'.");
+    }
+
+    /**
+     * Stops the feed after sending changes still queued.
+     */
+    public void stop() {
+        ChangeFeed current = feed;
+        feed = null;
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    /**
+     * Publishes a timer write. Called on the main thread right after the write.
+     */
+    public void publish(TimerChange.Type type, PlayerTimerData data, long secondsAdded) {
+        ChangeFeed current = feed;
+        if (current == null) return;
+        published.incrementAndGet();
+        current.publish(new TimerChange(0, server, type, data.getPlayerUuid(), data.getWorldName().toLowerCase(),
+                data.getSecondsUsed(), data.getCooldownUntil(), secondsAdded, plugin.getClock().seconds()));
+    }
+
+    public boolean isEnabled() {
+        return feed != null;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    private void receive(List<TimerChange> changes) {
+        // A poll that was already running when the plugin shut down
+        if (!plugin.isEnabled()) return;
+        received.addAndGet(changes.size());
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            for (TimerChange change : changes) {
+                plugin.getTimerManager().applyRemoteChange(change);
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package org.blueobsidian.worldTimer.timer;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active cooldowns, ordered by expiry time.
+ * Lets cooldown checks run without touching storage. Keys use the same
+ * "uuid:world" format as the active session cache in {@link TimerManager}.
+ * Callers pass the current time in epoch seconds, read from the plugin's clock.
+ */
+public class CooldownLedger {
+
+    // Current expiry per key, in epoch seconds
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+    // Expiry queue for pruning; may hold stale entries that were overwritten or removed
+    private final PriorityQueue<Entry> byExpiry = new PriorityQueue<>(Comparator.comparingLong(Entry::expiresAt));
+
+    /**
+     * Records a cooldown ending at the given epoch second.
+     * A value in the past (or 0) clears the entry.
+     */
+    public void put(UUID uuid, String worldName, long cooldownUntil, long nowSeconds) {
+        String key = key(uuid, worldName);
+        if (cooldownUntil <= nowSeconds) {
+            expiries.remove(key);
+            return;
+        }
+        expiries.put(key, cooldownUntil);
+        synchronized (byExpiry) {
+            byExpiry.add(new Entry(key, cooldownUntil));
+        }
+    }
+
+    /**
+     * Clears any cooldown for a player in a world.
+     */
+    public void remove(UUID uuid, String worldName) {
+        expiries.remove(key(uuid, worldName));
+    }
+
+    /**
+     * Returns the remaining cooldown in seconds, or 0 if none is active.
+     */
+    public long getRemainingSeconds(UUID uuid, String worldName, long nowSeconds) {
+        Long until = expiries.get(key(uuid, worldName));
+        if (until == null) {
+            return 0;
+        }
+        return Math.max(0, until - nowSeconds);
+    }
+
+    public boolean isActive(UUID uuid, String worldName, long nowSeconds) {
+        return getRemainingSeconds(uuid, worldName, nowSeconds) > 0;
+    }
+
+    /**
+     * Drops every entry whose cooldown has lapsed. Returns the number of cooldowns removed.
+     */
+    public int prune(long nowSeconds) {
+        int removed = 0;
+        synchronized (byExpiry) {
+            Entry head;
+            while ((head = byExpiry.peek()) != null && head.expiresAt() <= nowSeconds) {
+                byExpiry.poll();
+                // Only remove if the entry has not been replaced by a newer cooldown
+                if (expiries.remove(head.key(), head.expiresAt())) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        expiries.clear();
+        synchronized (byExpiry) {
+            byExpiry.clear();
+        }
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    private static String key(UUID uuid, String worldName) {
+        return uuid + ":" + worldName.toLowerCase();
+    }
+
+    private record Entry(String key, long expiresAt) {
+    }
+}
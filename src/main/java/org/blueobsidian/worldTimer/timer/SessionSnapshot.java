@@ -0,0 +1,113 @@
+package org.blueobsidian.worldTimer.timer;
+
+import org.blueobsidian.worldTimer.util.Clock;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of a player's timer state in one world, published by {@link TimerManager}
+ * whenever that state changes. Safe to read from any thread.
+ * <p>
+ * A snapshot of a running, limited session is not republished every tick. It carries the
+ * time it was taken and counts on from there when read, up to the limit;
+ * {@link TimerManager} republishes it periodically to correct any drift from the tick.
+ */
+public final class SessionSnapshot {
+
+    /** Limit value used when no limit has been resolved for this player yet. */
+    public static final long UNKNOWN_LIMIT = -2;
+
+    private final UUID playerUuid;
+    private final String worldName;
+    private final long secondsUsed;
+    private final long limit; // -1 = unlimited
+    private final long cooldownUntil; // epoch seconds
+    private final boolean tracking;
+    // Set while the session is running: seconds used keep counting from takenAt
+    private final Clock clock;
+    private final long takenAt;
+    private final long maxElapsed;
+
+    public SessionSnapshot(UUID playerUuid, String worldName, long secondsUsed, long limit,
+                           long cooldownUntil, boolean tracking) {
+        this(playerUuid, worldName, secondsUsed, limit, cooldownUntil, tracking, null, 0);
+    }
+
+    /**
+     * Creates a snapshot of a running session, read as counting on from the clock's current
+     * time for at most {@code maxElapsed} seconds. Only limited, tracking sessions count on.
+     */
+    public SessionSnapshot(UUID playerUuid, String worldName, long secondsUsed, long limit,
+                           long cooldownUntil, boolean tracking, Clock clock, long maxElapsed) {
+        this.playerUuid = playerUuid;
+        this.worldName = worldName;
+        this.secondsUsed = secondsUsed;
+        this.limit = limit;
+        this.cooldownUntil = cooldownUntil;
+        this.tracking = tracking;
+        boolean running = clock != null && tracking && limit >= 0;
+        this.clock = running ? clock : null;
+        this.takenAt = running ? clock.seconds() : 0;
+        this.maxElapsed = maxElapsed;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public long getSecondsUsed() {
+        if (clock == null) {
+            return secondsUsed;
+        }
+        long elapsed = Math.min(maxElapsed, Math.max(0, clock.seconds() - takenAt));
+        return Math.max(secondsUsed, Math.min(limit, secondsUsed + elapsed));
+    }
+
+    /**
+     * Whether reads count on from the time the snapshot was taken.
+     */
+    public boolean isRunning() {
+        return clock != null;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public boolean isUnlimited() {
+        return limit == -1;
+    }
+
+    public boolean isLimitKnown() {
+        return limit != UNKNOWN_LIMIT;
+    }
+
+    /**
+     * Returns remaining seconds, or -1 if unlimited or the limit is unknown.
+     */
+    public long getRemainingSeconds() {
+        if (limit < 0) {
+            return -1;
+        }
+        return Math.max(0, limit - getSecondsUsed());
+    }
+
+    public long getCooldownUntil() {
+        return cooldownUntil;
+    }
+
+    public long getCooldownRemainingSeconds(long nowSeconds) {
+        return Math.max(0, cooldownUntil - nowSeconds);
+    }
+
+    /**
+     * Whether the player is currently being timed in this world.
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+}
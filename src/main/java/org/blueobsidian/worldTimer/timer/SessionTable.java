@@ -0,0 +1,325 @@
+package org.blueobsidian.worldTimer.timer;
+
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense table of active sessions. Each session lives in a slot; its fields are kept in
+ * parallel primitive arrays so the timer tick is a linear scan without hash lookups or
+ * boxed values. Freed slots go on a free list and are reused before the table grows.
+ * <p>
+ * A player's slots are chained from a UUID index, so one player can hold more than one
+ * session (e.g. a world and a region inside it). World names are interned to small ids,
+ * which are released once no session uses them. After a peak, {@link #compact()} moves
+ * sessions down so the scanned range shrinks back.
+ * <p>
+ * Main thread only. Readers on other threads use {@link SnapshotCache}.
+ */
+public class SessionTable {
+
+    public static final int NO_SLOT = -1;
+
+    private UUID[] players;
+    // The online player a slot belongs to, if known, so the tick needs no lookup by UUID
+    private Player[] onlinePlayers;
+    private int[] worldIds;
+    private long[] secondsUsed;
+    private long[] limits;
+    private long[] cooldownUntil;
+    private int[] nextForPlayer;
+
+    private int[] freeSlots;
+    private int freeCount;
+    // Slots below this have been handed out at least once; the tick scans up to here
+    private int highWater;
+    private int size;
+
+    private final Map<UUID, Integer> firstSlot = new HashMap<>();
+    private final Map<String, Integer> worldIdsByName = new HashMap<>();
+    private final List<String> worldNames = new ArrayList<>();
+    // Sessions per world id; an id is freed for reuse when it drops to zero
+    private int[] worldRefs = new int[16];
+    private final List<Integer> freeWorldIds = new ArrayList<>();
+
+    public SessionTable(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        players = new UUID[capacity];
+        onlinePlayers = new Player[capacity];
+        worldIds = new int[capacity];
+        secondsUsed = new long[capacity];
+        limits = new long[capacity];
+        cooldownUntil = new long[capacity];
+        nextForPlayer = new int[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    /**
+     * Stores a session and returns its slot. Replaces the player's existing session
+     * in the same world, if any.
+     */
+    public int put(UUID uuid, String worldName, long secondsUsed, long limit, long cooldownUntil) {
+        int worldId = worldId(worldName);
+        int slot = find(uuid, worldId);
+        if (slot == NO_SLOT) {
+            slot = allocate();
+            players[slot] = uuid;
+            worldIds[slot] = worldId;
+            worldRefs[worldId]++;
+            Integer head = firstSlot.put(uuid, slot);
+            nextForPlayer[slot] = head != null ? head : NO_SLOT;
+            size++;
+        }
+        this.secondsUsed[slot] = secondsUsed;
+        this.limits[slot] = limit;
+        this.cooldownUntil[slot] = cooldownUntil;
+        return slot;
+    }
+
+    /**
+     * Returns the slot of a player's session in a world, or {@link #NO_SLOT}.
+     */
+    public int find(UUID uuid, String worldName) {
+        Integer worldId = worldIdsByName.get(worldName.toLowerCase());
+        return worldId != null ? find(uuid, worldId) : NO_SLOT;
+    }
+
+    /**
+     * Frees a slot. Read anything needed from it first; its world name may be released.
+     */
+    public void remove(int slot) {
+        UUID uuid = players[slot];
+        if (uuid == null) return;
+
+        // Unlink from the player's chain
+        int head = firstSlot.get(uuid);
+        if (head == slot) {
+            if (nextForPlayer[slot] == NO_SLOT) {
+                firstSlot.remove(uuid);
+            } else {
+                firstSlot.put(uuid, nextForPlayer[slot]);
+            }
+        } else {
+            int previous = head;
+            while (nextForPlayer[previous] != slot) {
+                previous = nextForPlayer[previous];
+            }
+            nextForPlayer[previous] = nextForPlayer[slot];
+        }
+
+        players[slot] = null;
+        onlinePlayers[slot] = null;
+        releaseWorld(worldIds[slot]);
+        freeSlots[freeCount++] = slot;
+        size--;
+    }
+
+    public void clear() {
+        Arrays.fill(players, 0, highWater, null);
+        Arrays.fill(onlinePlayers, 0, highWater, null);
+        firstSlot.clear();
+        worldIdsByName.clear();
+        worldNames.clear();
+        Arrays.fill(worldRefs, 0);
+        freeWorldIds.clear();
+        freeCount = 0;
+        highWater = 0;
+        size = 0;
+    }
+
+    /**
+     * Moves sessions from the top of the scanned range into free slots below it, so the
+     * range shrinks back to {@link #size()} after a peak. Slot numbers held by callers are
+     * invalid afterwards. Returns the number of sessions moved.
+     */
+    public int compact() {
+        if (highWater == size) return 0;
+        int moved = 0;
+        int low = 0;
+        int high = highWater - 1;
+        while (true) {
+            while (low < high && players[low] != null) low++;
+            while (high > low && players[high] == null) high--;
+            if (low >= high) break;
+            move(high, low);
+            moved++;
+        }
+        // Every slot below size is now used, so nothing is free below the new high water
+        highWater = size;
+        freeCount = 0;
+        return moved;
+    }
+
+    /**
+     * Returns the number of slots the tick has to scan. Slots below it may be free.
+     */
+    public int getHighWater() {
+        return highWater;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return players.length;
+    }
+
+    public boolean isUsed(int slot) {
+        return players[slot] != null;
+    }
+
+    public UUID getPlayer(int slot) {
+        return players[slot];
+    }
+
+    /**
+     * Returns the player object recorded for a slot, or null. It may belong to a player
+     * who has since gone offline.
+     */
+    public Player getOnlinePlayer(int slot) {
+        return onlinePlayers[slot];
+    }
+
+    public void setOnlinePlayer(int slot, Player player) {
+        onlinePlayers[slot] = player;
+    }
+
+    /**
+     * Returns the interned id of a slot's world. Ids are reused once released, so callers
+     * caching by id should also compare {@link #getWorldName(int)} by identity.
+     */
+    public int getWorldId(int slot) {
+        return worldIds[slot];
+    }
+
+    /**
+     * Returns the lowercase world name of a slot.
+     */
+    public String getWorldName(int slot) {
+        return worldNames.get(worldIds[slot]);
+    }
+
+    public long getSecondsUsed(int slot) {
+        return secondsUsed[slot];
+    }
+
+    public void setSecondsUsed(int slot, long seconds) {
+        secondsUsed[slot] = seconds;
+    }
+
+    /**
+     * Adds seconds to a slot and returns the new total.
+     */
+    public long addSeconds(int slot, long seconds) {
+        return secondsUsed[slot] += seconds;
+    }
+
+    public long getLimit(int slot) {
+        return limits[slot];
+    }
+
+    public void setLimit(int slot, long limit) {
+        limits[slot] = limit;
+    }
+
+    public long getCooldownUntil(int slot) {
+        return cooldownUntil[slot];
+    }
+
+    public void setCooldownUntil(int slot, long until) {
+        cooldownUntil[slot] = until;
+    }
+
+    /**
+     * Copies a slot into a {@link PlayerTimerData} for storage or callers outside the tick.
+     */
+    public PlayerTimerData toData(int slot) {
+        return new PlayerTimerData(players[slot], getWorldName(slot), secondsUsed[slot], cooldownUntil[slot]);
+    }
+
+    private int find(UUID uuid, int worldId) {
+        Integer head = firstSlot.get(uuid);
+        for (int slot = head != null ? head : NO_SLOT; slot != NO_SLOT; slot = nextForPlayer[slot]) {
+            if (worldIds[slot] == worldId) {
+                return slot;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    private int worldId(String worldName) {
+        return worldIdsByName.computeIfAbsent(worldName.toLowerCase(), name -> {
+            if (!freeWorldIds.isEmpty()) {
+                int id = freeWorldIds.remove(freeWorldIds.size() - 1);
+                worldNames.set(id, name);
+                return id;
+            }
+            worldNames.add(name);
+            if (worldNames.size() > worldRefs.length) {
+                worldRefs = Arrays.copyOf(worldRefs, worldRefs.length * 2);
+            }
+            return worldNames.size() - 1;
+        });
+    }
+
+    private void releaseWorld(int worldId) {
+        if (--worldRefs[worldId] > 0) return;
+        worldIdsByName.remove(worldNames.get(worldId));
+        worldNames.set(worldId, null);
+        freeWorldIds.add(worldId);
+    }
+
+    private void move(int from, int to) {
+        UUID uuid = players[from];
+        players[to] = uuid;
+        onlinePlayers[to] = onlinePlayers[from];
+        worldIds[to] = worldIds[from];
+        secondsUsed[to] = secondsUsed[from];
+        limits[to] = limits[from];
+        cooldownUntil[to] = cooldownUntil[from];
+        nextForPlayer[to] = nextForPlayer[from];
+
+        // Point whatever linked to the old slot at the new one
+        int head = firstSlot.get(uuid);
+        if (head == from) {
+            firstSlot.put(uuid, to);
+        } else {
+            int previous = head;
+            while (nextForPlayer[previous] != from) {
+                previous = nextForPlayer[previous];
+            }
+            nextForPlayer[previous] = to;
+        }
+        players[from] = null;
+        onlinePlayers[from] = null;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == players.length) {
+            grow();
+        }
+        return highWater++;
+    }
+
+    private void grow() {
+        int capacity = players.length * 2;
+        players = Arrays.copyOf(players, capacity);
+        onlinePlayers = Arrays.copyOf(onlinePlayers, capacity);
+        worldIds = Arrays.copyOf(worldIds, capacity);
+        secondsUsed = Arrays.copyOf(secondsUsed, capacity);
+        limits = Arrays.copyOf(limits, capacity);
+        cooldownUntil = Arrays.copyOf(cooldownUntil, capacity);
+        nextForPlayer = Arrays.copyOf(nextForPlayer, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
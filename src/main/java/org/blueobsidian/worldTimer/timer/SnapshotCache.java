@@ -0,0 +1,58 @@
+package org.blueobsidian.worldTimer.timer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player immutable snapshots of timer state. {@link TimerManager} is the only writer
+ * and publishes from the main thread; readers anywhere (placeholders, API calls, storage
+ * work) read lock-free and never synchronize with the tick.
+ * Each player's world map is copy-on-write, so readers never see a partial update.
+ */
+public class SnapshotCache {
+
+    private final Map<UUID, Map<String, SessionSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    public void publish(SessionSnapshot snapshot) {
+        String world = snapshot.getWorldName().toLowerCase();
+        snapshots.compute(snapshot.getPlayerUuid(), (uuid, current) -> {
+            // Most players have state in one world; the tick republishes it every interval
+            if (current == null || (current.size() == 1 && current.containsKey(world))) {
+                return Map.of(world, snapshot);
+            }
+            Map<String, SessionSnapshot> next = new HashMap<>(current);
+            next.put(world, snapshot);
+            return Collections.unmodifiableMap(next);
+        });
+    }
+
+    public SessionSnapshot get(UUID uuid, String worldName) {
+        Map<String, SessionSnapshot> worlds = snapshots.get(uuid);
+        return worlds != null ? worlds.get(worldName.toLowerCase()) : null;
+    }
+
+    /**
+     * Returns all snapshots for a player, keyed by lowercase world name.
+     */
+    public Map<String, SessionSnapshot> getAll(UUID uuid) {
+        return snapshots.getOrDefault(uuid, Collections.emptyMap());
+    }
+
+    public void remove(UUID uuid, String worldName) {
+        snapshots.computeIfPresent(uuid, (id, current) -> {
+            if (!current.containsKey(worldName.toLowerCase())) {
+                return current;
+            }
+            Map<String, SessionSnapshot> next = new HashMap<>(current);
+            next.remove(worldName.toLowerCase());
+            return next.isEmpty() ? null : Collections.unmodifiableMap(next);
+        });
+    }
+
+    public void removePlayer(UUID uuid) {
+        snapshots.remove(uuid);
+    }
+}
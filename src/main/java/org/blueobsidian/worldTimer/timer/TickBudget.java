@@ -0,0 +1,210 @@
+package org.blueobsidian.worldTimer.timer;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.logging.Level;
+
+/**
+ * Measures the plugin's main-thread time per server tick and degrades when it goes over
+ * budget. The timer tick, listeners and teleports report their time through
+ * {@link #begin()} and {@link #end(long)}; a task at every tick boundary compares the total
+ * with the budget.
+ * <p>
+ * While degraded, non-critical work is put off: warning and entry messages are queued with
+ * {@link #defer(Runnable)} and run a few per tick in spare time, countdown displays skip
+ * refreshes and the history flush waits. Expiry, cooldowns and entry denial always run
+ * inline. After {@code recover-after-ticks} ticks in a row under budget the plugin
+ * recovers. Both transitions are logged.
+ * <p>
+ * Main thread only.
+ */
+public class TickBudget {
+
+    // Past this many queued tasks, deferring stops and work runs inline again
+    private static final int MAX_DEFERRED = 1024;
+
+    private final WorldTimer plugin;
+    private final ArrayDeque<Runnable> deferred = new ArrayDeque<>();
+    private BukkitTask task;
+
+    private boolean enabled;
+    private long budgetNanos;
+    private int recoverAfterTicks;
+
+    private long tickNanos;
+    private long lastTickNanos;
+    private long peakTickNanos;
+    // Read by the async history flush
+    private volatile boolean degraded;
+    private int ticksUnderBudget;
+    private long degradedSinceMillis;
+    private long degradations;
+    private long deferredTotal;
+
+    public TickBudget(WorldTimer plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * (Re)applies the budget settings from the config and (re)starts the boundary task.
+     */
+    public void start() {
+        stop();
+        PluginConfig config = plugin.getPluginConfig();
+        configure(config.isTickBudgetEnabled(), config.getTickBudgetNanos(), config.getTickBudgetRecoverTicks());
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::endTick, 1L, 1L);
+    }
+
+    /**
+     * Stops the boundary task and runs everything still deferred.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        runDeferred(Long.MAX_VALUE);
+        if (degraded) {
+            recover();
+        }
+    }
+
+    public void configure(boolean enabled, long budgetNanos, int recoverAfterTicks) {
+        this.enabled = enabled;
+        this.budgetNanos = Math.max(1, budgetNanos);
+        this.recoverAfterTicks = Math.max(1, recoverAfterTicks);
+        if (!enabled && degraded) {
+            recover();
+        }
+    }
+
+    /**
+     * Marks the start of measured work. Pass the result to {@link #end(long)}.
+     */
+    public long begin() {
+        return System.nanoTime();
+    }
+
+    public void end(long begunAt) {
+        tickNanos += System.nanoTime() - begunAt;
+    }
+
+    /**
+     * Runs the work and counts its time against the budget.
+     */
+    public void measure(Runnable work) {
+        long begunAt = begin();
+        try {
+            work.run();
+        } finally {
+            end(begunAt);
+        }
+    }
+
+    /**
+     * Runs the task now, or queues it for a later tick while degraded.
+     * Only for work that may safely run late; deferred tasks re-check their preconditions.
+     */
+    public void defer(Runnable work) {
+        if (!degraded || deferred.size() >= MAX_DEFERRED) {
+            work.run();
+            return;
+        }
+        deferred.add(work);
+        deferredTotal++;
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * Closes the current tick: updates the degraded state and runs deferred work in the
+     * spare half of the budget, at least one task per tick.
+     */
+    void endTick() {
+        long spent = tickNanos;
+        tickNanos = 0;
+        lastTickNanos = spent;
+        peakTickNanos = Math.max(peakTickNanos, spent);
+
+        if (enabled) {
+            if (spent > budgetNanos) {
+                ticksUnderBudget = 0;
+                if (!degraded) {
+                    degrade(spent);
+                }
+            } else if (degraded && ++ticksUnderBudget >= recoverAfterTicks) {
+                recover();
+            }
+        }
+
+        if (!deferred.isEmpty()) {
+            long begunAt = begin();
+            runDeferred(degraded ? budgetNanos / 2 : Long.MAX_VALUE);
+            end(begunAt);
+        }
+    }
+
+    private void runDeferred(long maxNanos) {
+        long startedAt = System.nanoTime();
+        Runnable work;
+        while ((work = deferred.poll()) != null) {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Deferred task failed", e);
+            }
+            if (System.nanoTime() - startedAt >= maxNanos) {
+                break;
+            }
+        }
+    }
+
+    private void degrade(long spent) {
+        degraded = true;
+        degradations++;
+        degradedSinceMillis = System.currentTimeMillis();
+        plugin.getLogger().warning("Main-thread time " + formatMillis(spent) + " ms went over the "
+                + formatMillis(budgetNanos) + " ms tick budget. Deferring warnings, display updates and history writes.");
+    }
+
+    private void recover() {
+        degraded = false;
+        ticksUnderBudget = 0;
+        plugin.getLogger().info("Recovered from tick budget degradation after "
+                + (System.currentTimeMillis() - degradedSinceMillis) + " ms, " + deferred.size()
+                + " deferred task(s) left to run.");
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public long getPeakTickNanos() {
+        return peakTickNanos;
+    }
+
+    public long getDegradations() {
+        return degradations;
+    }
+
+    public long getDeferredTotal() {
+        return deferredTotal;
+    }
+
+    public int getDeferredPending() {
+        return deferred.size();
+    }
+}
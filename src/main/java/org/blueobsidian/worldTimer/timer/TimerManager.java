@@ -1,96 +1,204 @@
 package org.blueobsidian.worldTimer.timer;
 
 import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.api.event.WorldTimerExpireEvent;
+import org.blueobsidian.worldTimer.api.event.WorldTimerWarnEvent;
 import org.blueobsidian.worldTimer.config.MessageConfig;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.blueobsidian.worldTimer.config.RegionConfig;
 import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticCategory;
+import org.blueobsidian.worldTimer.diagnostics.DiagnosticLevel;
+import org.blueobsidian.worldTimer.diagnostics.Diagnostics;
 import org.blueobsidian.worldTimer.permission.PermissionResolver;
+import org.blueobsidian.worldTimer.state.PlayerStateCache;
 import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.SessionRecord;
 import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.storage.TimerChange;
 import org.blueobsidian.worldTimer.util.TimeUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 
 public class TimerManager {
 
+    // Running snapshots count on by themselves; the tick republishes them this often to correct drift
+    private static final int SNAPSHOT_RESYNC_SECONDS = 30;
+    // Scanned slots allowed beyond twice the live sessions before the table is compacted
+    private static final int COMPACT_SLACK = 64;
+
     private final WorldTimer plugin;
     private final StorageManager storage;
     private final PermissionResolver permissionResolver;
-
-    // Active session cache: key = "uuid:world"
-    private final Map<String, PlayerTimerData> activeTimers = new ConcurrentHashMap<>();
-    // Cached resolved limits: key = "uuid:world", value = limit in seconds (-1 = unlimited)
-    private final Map<String, Long> resolvedLimits = new ConcurrentHashMap<>();
-
-    public TimerManager(WorldTimer plugin, StorageManager storage, PermissionResolver permissionResolver) {
+    private final PlayerStateCache playerStates;
+
+    // Active sessions with their resolved limit in seconds (-1 = unlimited)
+    private final SessionTable sessions = new SessionTable(256);
+    // Active cooldowns, kept in memory so entry checks never hit storage
+    private final CooldownLedger cooldownLedger = new CooldownLedger();
+    // Immutable per-player state for readers off the main thread
+    private final SnapshotCache snapshots = new SnapshotCache();
+    // Timer config per session world id, so the tick does no name lookups; cleared on reload.
+    // The name an entry was resolved for is kept to detect a released id that was reused
+    private WorldConfig[] tickConfigs = new WorldConfig[16];
+    private String[] tickConfigNames = new String[16];
+
+    public TimerManager(WorldTimer plugin, StorageManager storage, PermissionResolver permissionResolver,
+                        PlayerStateCache playerStates) {
         this.plugin = plugin;
         this.storage = storage;
         this.permissionResolver = permissionResolver;
+        this.playerStates = playerStates;
+    }
+
+    /**
+     * Warms the cooldown ledger with every cooldown still in the future. Called on startup.
+     */
+    public void loadCooldowns() {
+        cooldownLedger.clear();
+        mergeCooldowns(storage.loadActiveCooldowns(plugin.getClock().seconds()));
+        plugin.getLogger().info("Loaded " + cooldownLedger.size() + " active cooldown(s).");
     }
 
     /**
-     * Called when a player enters a configured world.
+     * Adds stored cooldowns to the in-memory ledger, replacing entries for the same
+     * player and world. Used after an import wrote new rows.
+     */
+    public void mergeCooldowns(List<PlayerTimerData> stored) {
+        long now = plugin.getClock().seconds();
+        for (PlayerTimerData data : stored) {
+            cooldownLedger.put(data.getPlayerUuid(), data.getWorldName(), data.getCooldownUntil(), now);
+        }
+    }
+
+    /**
+     * Called when a player enters a configured world or region.
      * Returns false if entry should be blocked (cooldown active).
      */
     public boolean handleWorldEntry(Player player, WorldConfig worldConfig) {
+        return handleWorldEntry(player, worldConfig, null, SessionSnapshot.UNKNOWN_LIMIT);
+    }
+
+    /**
+     * Same as {@link #handleWorldEntry(Player, WorldConfig)}, but uses already loaded
+     * timer data instead of querying storage when it is given, and an already resolved
+     * limit unless it is {@link SessionSnapshot#UNKNOWN_LIMIT}.
+     */
+    public boolean handleWorldEntry(Player player, WorldConfig worldConfig, PlayerTimerData preloaded, long knownLimit) {
         UUID uuid = player.getUniqueId();
         String world = worldConfig.getWorldName().toLowerCase();
-        String key = uuid + ":" + world;
         MessageConfig msg = plugin.getPluginConfig().getMessageConfig();
 
         // Check bypass — no enforcement, but still notify
         if (player.hasPermission(worldConfig.getBypassPermission())) {
-            player.sendMessage(msg.format(msg.getEnterUnlimited(), world, null, null, player.getName()));
+            SessionSnapshot previous = snapshots.get(uuid, world);
+            publishSnapshot(uuid, world, previous != null ? previous.getSecondsUsed() : 0, -1,
+                    previous != null ? previous.getCooldownUntil() : 0, true);
+            sendDeferred(player, () -> msg.format(msg.getEnterUnlimited(), world, null, null, player.getName()));
             return true;
         }
 
-        // Load data from storage
-        PlayerTimerData data = storage.loadData(uuid, world);
-
         // Check cooldown
-        if (data.isCooldownActive()) {
-            String cooldownStr = TimeUtil.formatTime(data.getCooldownRemainingSeconds());
+        long cooldownRemaining = cooldownLedger.getRemainingSeconds(uuid, world, plugin.getClock().seconds());
+        if (cooldownRemaining > 0) {
+            String cooldownStr = TimeUtil.formatTime(cooldownRemaining);
             player.sendMessage(msg.format(msg.getCooldown(), world, null, cooldownStr, player.getName()));
             teleportToMainWorld(player, worldConfig);
             return false;
         }
 
+        // Load data from storage
+        PlayerTimerData data = preloaded != null ? preloaded : storage.loadData(uuid, world);
+
         // Resolve time limit
-        long limit = permissionResolver.resolveLimit(player, worldConfig);
-        resolvedLimits.put(key, limit);
+        long limit = knownLimit != SessionSnapshot.UNKNOWN_LIMIT
+                ? knownLimit : permissionResolver.resolveLimit(player, worldConfig);
 
-        // If unlimited, no tracking needed but cache for reference
-        activeTimers.put(key, data);
+        // Unlimited sessions are kept too, the tick skips them
+        int slot = sessions.put(uuid, world, data.getSecondsUsed(), limit, data.getCooldownUntil());
+        sessions.setOnlinePlayer(slot, player);
+        plugin.getSessionHistory().open(uuid, world, data.getSecondsUsed(), limit);
+        publishSnapshot(data, limit, true);
 
-        // Send entry notification
+        // Send entry notification, put off while over the tick budget
         if (limit == -1) {
-            player.sendMessage(msg.format(msg.getEnterUnlimited(), world, null, null, player.getName()));
+            sendDeferred(player, () -> msg.format(msg.getEnterUnlimited(), world, null, null, player.getName()));
         } else {
             long remaining = Math.max(0, limit - data.getSecondsUsed());
-            String timeStr = TimeUtil.formatTime(remaining);
-            player.sendMessage(msg.format(msg.getEnter(), world, timeStr, null, player.getName()));
+            sendDeferred(player, () -> msg.format(msg.getEnter(), world, TimeUtil.formatTime(remaining), null, player.getName()));
+            plugin.getCountdownDisplay().update(player, worldConfig, remaining, limit);
         }
 
         return true;
     }
 
     /**
-     * Called when a player leaves a configured world (world change or disconnect).
+     * Starts tracking players who are already online in a timed world, e.g. after the
+     * plugin was enabled on a running server. Rows for all of them are loaded in one
+     * async query; sessions are then registered in a single main-thread pass.
+     */
+    public void bootstrapOnlinePlayers() {
+        Map<UUID, String> playerWorlds = new HashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            String world = player.getWorld().getName();
+            if (plugin.getPluginConfig().isWorldConfigured(world)) {
+                playerWorlds.put(player.getUniqueId(), world.toLowerCase());
+            }
+        }
+        if (playerWorlds.isEmpty()) return;
+
+        CompletableFuture<List<PlayerTimerData>> load = plugin.getStorageExecutor()
+                .submit("bootstrap", () -> storage.loadData(playerWorlds));
+        load.whenComplete((loaded, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load timers for online players", error);
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                int started = 0;
+                for (PlayerTimerData data : loaded) {
+                    Player player = Bukkit.getPlayer(data.getPlayerUuid());
+                    // Skip players who left, moved on, or were picked up by the join listener meanwhile
+                    if (player == null || !player.getWorld().getName().equalsIgnoreCase(data.getWorldName())) continue;
+                    if (sessions.find(data.getPlayerUuid(), data.getWorldName()) != SessionTable.NO_SLOT) continue;
+                    WorldConfig wc = plugin.getPluginConfig().getWorldConfig(data.getWorldName());
+                    if (wc == null || !wc.isEnabled()) continue;
+                    handleWorldEntry(player, wc, data, SessionSnapshot.UNKNOWN_LIMIT);
+                    started++;
+                }
+                plugin.getLogger().info("Started tracking " + started + " already online player(s).");
+            });
+        });
+    }
+
+    /**
+     * Called when a player leaves a configured world or region (world change, region exit or disconnect).
      */
     public void handleWorldExit(Player player, String worldName) {
         UUID uuid = player.getUniqueId();
-        String key = uuid + ":" + worldName.toLowerCase();
+        int slot = sessions.find(uuid, worldName);
 
-        PlayerTimerData data = activeTimers.remove(key);
-        resolvedLimits.remove(key);
+        plugin.getCountdownDisplay().hide(player, worldName);
 
-        if (data != null) {
+        if (slot != SessionTable.NO_SLOT) {
+            PlayerTimerData data = sessions.toData(slot);
+            long limit = sessions.getLimit(slot);
+            sessions.remove(slot);
+            publishSnapshot(data, limit, false);
+            plugin.getSessionHistory().close(uuid, worldName, data.getSecondsUsed(), SessionRecord.EndReason.EXIT);
             storage.saveData(data);
+            plugin.getTimerSync().publish(TimerChange.Type.SESSION, data, 0);
         }
     }
 
@@ -100,49 +208,91 @@ public class TimerManager {
     public void tick(int tickSeconds) {
         MessageConfig msg = plugin.getPluginConfig().getMessageConfig();
 
-        for (Map.Entry<String, PlayerTimerData> entry : activeTimers.entrySet()) {
-            String key = entry.getKey();
-            PlayerTimerData data = entry.getValue();
+        // Drop lapsed cooldowns
+        cooldownLedger.prune(plugin.getClock().seconds());
 
-            Long limit = resolvedLimits.get(key);
-            if (limit == null || limit == -1) {
-                continue; // unlimited or no data
+        // Shrink the scanned range back after a peak in players
+        if (sessions.getHighWater() > sessions.size() * 2 + COMPACT_SLACK) {
+            sessions.compact();
+        }
+
+        int highWater = sessions.getHighWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            if (!sessions.isUsed(slot)) {
+                continue;
+            }
+            long limit = sessions.getLimit(slot);
+            if (limit == -1) {
+                continue; // unlimited
             }
 
-            UUID uuid = data.getPlayerUuid();
-            Player player = Bukkit.getPlayer(uuid);
-            if (player == null || !player.isOnline()) {
+            UUID uuid = sessions.getPlayer(slot);
+            Player recorded = sessions.getOnlinePlayer(slot);
+            // Looked up again only if they rejoined as a new player object since the session started
+            Player player = recorded != null && recorded.isOnline() ? recorded : Bukkit.getPlayer(uuid);
+            if (player == null) {
+                pauseSnapshot(slot);
                 continue;
             }
+            if (player != recorded) {
+                sessions.setOnlinePlayer(slot, player);
+            }
 
-            String worldName = data.getWorldName();
-            WorldConfig worldConfig = plugin.getPluginConfig().getWorldConfig(worldName);
+            String worldName = sessions.getWorldName(slot);
+            WorldConfig worldConfig = tickConfig(slot, worldName);
             if (worldConfig == null) continue;
 
-            // Verify player is still in this world
-            if (!player.getWorld().getName().equalsIgnoreCase(worldName)) {
+            // Verify player is still in this world (or the region's world; region exits end the session)
+            String sessionWorld = worldConfig instanceof RegionConfig region ? region.getWorld() : worldName;
+            if (!player.getWorld().getName().equalsIgnoreCase(sessionWorld)) {
+                pauseSnapshot(slot);
                 continue;
             }
 
-            // Increment time
-            data.addSeconds(tickSeconds);
+            // Increment time; the published snapshot counts on by itself between resyncs
+            long secondsUsed = sessions.addSeconds(slot, tickSeconds);
+            if (secondsUsed / SNAPSHOT_RESYNC_SECONDS != (secondsUsed - tickSeconds) / SNAPSHOT_RESYNC_SECONDS) {
+                publishSnapshot(uuid, worldName, secondsUsed, limit, sessions.getCooldownUntil(slot), true);
+            }
 
-            long remaining = limit - data.getSecondsUsed();
+            long remaining = limit - secondsUsed;
 
-            // Check warnings
+            // Check warnings, put off while over the tick budget
             for (long warnAt : worldConfig.getWarnAtSeconds()) {
                 // Fire warning if we just crossed this threshold
                 long previousRemaining = remaining + tickSeconds;
                 if (previousRemaining > warnAt && remaining <= warnAt && remaining > 0) {
-                    String timeStr = TimeUtil.formatTime(remaining);
-                    player.sendMessage(msg.format(msg.getWarn(), worldName, timeStr, null, player.getName()));
+                    plugin.getTickBudget().defer(() -> {
+                        if (!player.isOnline()) return;
+                        String timeStr = TimeUtil.formatTime(remaining);
+                        player.sendMessage(msg.format(msg.getWarn(), worldName, timeStr, null, player.getName()));
+                        if (WorldTimerWarnEvent.hasListeners()) {
+                            Bukkit.getPluginManager().callEvent(new WorldTimerWarnEvent(player, worldName, remaining));
+                        }
+                    });
                 }
             }
 
+            // Refresh live countdown
+            if (remaining > 0) {
+                plugin.getCountdownDisplay().update(player, worldConfig, remaining, limit);
+            }
+
             // Check expiry
             if (remaining <= 0) {
+                Diagnostics diagnostics = plugin.getDiagnostics();
+                if (diagnostics.shouldLog(DiagnosticCategory.TIMER, DiagnosticLevel.INFO)) {
+                    diagnostics.log(DiagnosticCategory.TIMER, DiagnosticLevel.INFO, player.getName()
+                            + " expired in '" + worldName + "' after " + secondsUsed + "s (limit " + limit + "s)");
+                }
+
                 // Time expired
                 player.sendMessage(msg.format(msg.getExpired(), worldName, null, null, player.getName()));
+                long cooldownSeconds = permissionResolver.resolveCooldown(player, worldConfig);
+                if (WorldTimerExpireEvent.hasListeners()) {
+                    Bukkit.getPluginManager().callEvent(
+                            new WorldTimerExpireEvent(player, worldName, secondsUsed, cooldownSeconds));
+                }
 
                 // Execute expire commands
                 for (String cmd : worldConfig.getExpireCommands()) {
@@ -151,15 +301,20 @@ public class TimerManager {
                 }
 
                 // Start cooldown
-                long cooldownSeconds = permissionResolver.resolveCooldown(player, worldConfig);
                 if (cooldownSeconds > 0) {
-                    data.setCooldownUntil((System.currentTimeMillis() / 1000) + cooldownSeconds);
+                    long now = plugin.getClock().seconds();
+                    sessions.setCooldownUntil(slot, now + cooldownSeconds);
+                    cooldownLedger.put(uuid, worldName, now + cooldownSeconds, now);
                 }
 
                 // Save and remove from active
+                PlayerTimerData data = sessions.toData(slot);
+                sessions.remove(slot);
+                plugin.getCountdownDisplay().hide(player, worldName);
+                publishSnapshot(data, limit, false);
+                plugin.getSessionHistory().close(uuid, worldName, secondsUsed, SessionRecord.EndReason.EXPIRE);
                 storage.saveData(data);
-                activeTimers.remove(key);
-                resolvedLimits.remove(key);
+                plugin.getTimerSync().publish(TimerChange.Type.SESSION, data, 0);
 
                 // Teleport to main world
                 teleportToMainWorld(player, worldConfig);
@@ -167,25 +322,96 @@ public class TimerManager {
         }
     }
 
+    /**
+     * Reconciles active sessions with a reloaded world config.
+     * Sessions in unchanged worlds are left alone. Sessions in removed or disabled worlds
+     * are saved and ended; sessions in changed worlds get their limit re-resolved.
+     * Online players standing in newly enabled worlds start being tracked.
+     *
+     * @param previous the timers from before the reload, as returned by {@link PluginConfig#getTimerConfigs()}
+     */
+    public void applyWorldChanges(Map<String, WorldConfig> previous) {
+        PluginConfig config = plugin.getPluginConfig();
+        Arrays.fill(tickConfigs, null);
+        Arrays.fill(tickConfigNames, null);
+        int ended = 0;
+        int refreshed = 0;
+        for (int slot = 0; slot < sessions.getHighWater(); slot++) {
+            if (!sessions.isUsed(slot)) continue;
+            UUID uuid = sessions.getPlayer(slot);
+            String world = sessions.getWorldName(slot);
+            WorldConfig before = previous.get(world);
+            WorldConfig after = config.getTimerConfig(world);
+
+            if (after != null && after.isEnabled() && after.equals(before)) {
+                continue; // unchanged
+            }
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (after == null || !after.isEnabled()) {
+                // World is no longer timed
+                PlayerTimerData data = sessions.toData(slot);
+                long limit = sessions.getLimit(slot);
+                sessions.remove(slot);
+                publishSnapshot(data, limit, false);
+                plugin.getSessionHistory().close(uuid, world, data.getSecondsUsed(), SessionRecord.EndReason.EXIT);
+                if (player != null) {
+                    plugin.getCountdownDisplay().hide(player, world);
+                }
+                storage.saveData(data);
+                plugin.getTimerSync().publish(TimerChange.Type.SESSION, data, 0);
+                ended++;
+            } else if (player != null) {
+                // Settings changed, limit may differ now
+                long limit = permissionResolver.resolveLimit(player, after);
+                sessions.setLimit(slot, limit);
+                publishSnapshot(uuid, world, sessions.getSecondsUsed(slot), limit, sessions.getCooldownUntil(slot), true);
+                refreshed++;
+            }
+        }
+
+        // Start tracking players already inside worlds that just became timed, including
+        // worlds a new pattern matches. Regions are picked up by the region tracker.
+        int started = 0;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            String world = player.getWorld().getName();
+            WorldConfig wc = config.getWorldConfig(world);
+            if (wc == null || !wc.isEnabled()) continue;
+            WorldConfig before = previous.get(world.toLowerCase());
+            if (before != null && before.isEnabled()) continue;
+            handleWorldEntry(player, wc);
+            started++;
+        }
+
+        if (ended + refreshed + started > 0) {
+            plugin.getLogger().info("Reload: ended " + ended + ", refreshed " + refreshed
+                    + ", started " + started + " session(s).");
+        }
+    }
+
     /**
      * Saves all active timer data to storage. Called on shutdown.
      */
     public void saveAll() {
-        for (PlayerTimerData data : activeTimers.values()) {
+        for (int slot = 0; slot < sessions.getHighWater(); slot++) {
+            if (!sessions.isUsed(slot)) continue;
+            PlayerTimerData data = sessions.toData(slot);
+            plugin.getSessionHistory().close(data.getPlayerUuid(), data.getWorldName(), data.getSecondsUsed(),
+                    SessionRecord.EndReason.EXIT);
             storage.saveData(data);
+            plugin.getTimerSync().publish(TimerChange.Type.SESSION, data, 0);
         }
-        activeTimers.clear();
-        resolvedLimits.clear();
+        sessions.clear();
+        plugin.getCountdownDisplay().clearAll();
     }
 
     /**
-     * Gets the active timer data for a player in a world, or loads from storage.
+     * Gets a copy of the active timer data for a player in a world, or loads from storage.
      */
     public PlayerTimerData getData(UUID uuid, String worldName) {
-        String key = uuid + ":" + worldName.toLowerCase();
-        PlayerTimerData data = activeTimers.get(key);
-        if (data != null) {
-            return data;
+        int slot = sessions.find(uuid, worldName);
+        if (slot != SessionTable.NO_SLOT) {
+            return sessions.toData(slot);
         }
         return storage.loadData(uuid, worldName);
     }
@@ -195,77 +421,240 @@ public class TimerManager {
      * Returns null if not cached (player not in world).
      */
     public Long getResolvedLimit(UUID uuid, String worldName) {
-        return resolvedLimits.get(uuid + ":" + worldName.toLowerCase());
+        int slot = sessions.find(uuid, worldName);
+        return slot != SessionTable.NO_SLOT ? sessions.getLimit(slot) : null;
+    }
+
+    /**
+     * Whether a player has an active session in a world.
+     */
+    public boolean isTracking(UUID uuid, String worldName) {
+        return sessions.find(uuid, worldName) != SessionTable.NO_SLOT;
+    }
+
+    /**
+     * Returns the remaining cooldown for a player in a world, in seconds.
+     * Served from the in-memory ledger; never touches storage.
+     */
+    public long getCooldownRemainingSeconds(UUID uuid, String worldName) {
+        return cooldownLedger.getRemainingSeconds(uuid, worldName, plugin.getClock().seconds());
     }
 
     /**
      * Adds time to a player's allowance (reduces seconds used).
      */
     public void addTime(UUID uuid, String worldName, long seconds) {
-        String key = uuid + ":" + worldName.toLowerCase();
-        PlayerTimerData data = activeTimers.get(key);
-        if (data == null) {
-            data = storage.loadData(uuid, worldName);
-        }
-        data.setSecondsUsed(Math.max(0, data.getSecondsUsed() - seconds));
-        storage.saveData(data);
-        if (activeTimers.containsKey(key)) {
-            activeTimers.put(key, data);
+        storage.saveData(addTime(uuid, worldName, seconds, null));
+    }
+
+    /**
+     * Same as {@link #addTime(UUID, String, long)}, but starts from the given stored row when
+     * the player has no live session (loading it when null), and leaves saving the returned
+     * row to the caller.
+     */
+    public PlayerTimerData addTime(UUID uuid, String worldName, long seconds, PlayerTimerData stored) {
+        int slot = sessions.find(uuid, worldName);
+        PlayerTimerData data = slot != SessionTable.NO_SLOT ? sessions.toData(slot)
+                : stored != null ? stored : storage.loadData(uuid, worldName);
+        data = data.withSecondsUsed(Math.max(0, data.getSecondsUsed() - seconds));
+        if (slot != SessionTable.NO_SLOT) {
+            sessions.setSecondsUsed(slot, data.getSecondsUsed());
         }
+        publishSnapshot(data, knownLimit(uuid, worldName), slot != SessionTable.NO_SLOT);
+        plugin.getTimerSync().publish(TimerChange.Type.TIME_ADDED, data, seconds);
+        return data;
     }
 
     /**
      * Resets a player's timer and cooldown for a world.
      */
     public void resetPlayer(UUID uuid, String worldName) {
-        String key = uuid + ":" + worldName.toLowerCase();
-        activeTimers.remove(key);
-        resolvedLimits.remove(key);
+        clearLocal(uuid, worldName);
         storage.resetData(uuid, worldName);
+        plugin.getTimerSync().publish(TimerChange.Type.RESET,
+                new PlayerTimerData(uuid, worldName.toLowerCase(), 0, 0), 0);
     }
 
     /**
      * Sets the cooldown for a player in a world.
      */
     public void setCooldown(UUID uuid, String worldName, long seconds) {
-        String key = uuid + ":" + worldName.toLowerCase();
-        PlayerTimerData data = activeTimers.get(key);
-        if (data == null) {
-            data = storage.loadData(uuid, worldName);
+        storage.saveData(setCooldown(uuid, worldName, seconds, null));
+    }
+
+    /**
+     * Same as {@link #setCooldown(UUID, String, long)}, but starts from the given stored row
+     * when the player has no live session (loading it when null), and leaves saving the
+     * returned row to the caller.
+     */
+    public PlayerTimerData setCooldown(UUID uuid, String worldName, long seconds, PlayerTimerData stored) {
+        int slot = sessions.find(uuid, worldName);
+        PlayerTimerData data = slot != SessionTable.NO_SLOT ? sessions.toData(slot)
+                : stored != null ? stored : storage.loadData(uuid, worldName);
+        long now = plugin.getClock().seconds();
+        data = data.withCooldownUntil(seconds <= 0 ? 0 : now + seconds);
+        if (slot != SessionTable.NO_SLOT) {
+            sessions.setCooldownUntil(slot, data.getCooldownUntil());
         }
-        if (seconds <= 0) {
-            data.setCooldownUntil(0);
-        } else {
-            data.setCooldownUntil((System.currentTimeMillis() / 1000) + seconds);
+        cooldownLedger.put(uuid, worldName, data.getCooldownUntil(), now);
+        publishSnapshot(data, knownLimit(uuid, worldName), slot != SessionTable.NO_SLOT);
+        plugin.getCooldownDenials().invalidate(uuid);
+        plugin.getTimerSync().publish(TimerChange.Type.COOLDOWN, data, 0);
+        return data;
+    }
+
+    /**
+     * Applies a change made on another server sharing the database. The row was written
+     * there; only the state held here is updated. A live session here is newer than a
+     * session saved elsewhere and keeps its time, but takes admin changes.
+     */
+    public void applyRemoteChange(TimerChange change) {
+        UUID uuid = change.getPlayerUuid();
+        String world = change.getWorldName();
+        if (change.getType() == TimerChange.Type.RESET) {
+            clearLocal(uuid, world);
+            return;
         }
-        storage.saveData(data);
-        if (activeTimers.containsKey(key)) {
-            activeTimers.put(key, data);
+
+        int slot = sessions.find(uuid, world);
+        if (slot != SessionTable.NO_SLOT) {
+            if (change.getType() == TimerChange.Type.TIME_ADDED) {
+                sessions.setSecondsUsed(slot, Math.max(0, sessions.getSecondsUsed(slot) - change.getSecondsAdded()));
+            } else if (change.getType() == TimerChange.Type.COOLDOWN) {
+                sessions.setCooldownUntil(slot, change.getCooldownUntil());
+            }
+        }
+        if (change.getType() != TimerChange.Type.TIME_ADDED) {
+            cooldownLedger.put(uuid, world, change.getCooldownUntil(), plugin.getClock().seconds());
+            plugin.getCooldownDenials().invalidate(uuid);
+        }
+
+        if (slot != SessionTable.NO_SLOT) {
+            publishSnapshot(uuid, world, sessions.getSecondsUsed(slot), sessions.getLimit(slot),
+                    sessions.getCooldownUntil(slot), true);
+        } else if (snapshots.get(uuid, world) != null) {
+            publishSnapshot(uuid, world, change.getSecondsUsed(), knownLimit(uuid, world), change.getCooldownUntil(), false);
         }
     }
 
     /**
      * Teleports a player back to their saved pre-entry location.
      * Falls back to the main world spawn if no return location is stored.
+     * Players leaving a region always go to the main world spawn; the saved return
+     * location belongs to their last cross-world teleport.
      */
     public void teleportToMainWorld(Player player, WorldConfig worldConfig) {
+        Location returnLoc = worldConfig instanceof RegionConfig
+                ? null : playerStates.getReturnLocation(player.getUniqueId());
         Bukkit.getScheduler().runTask(plugin, () -> {
-            Location returnLoc = storage.loadReturnLocation(player.getUniqueId());
-            if (returnLoc != null && returnLoc.getWorld() != null) {
-                player.teleport(returnLoc);
-                storage.clearReturnLocation(player.getUniqueId());
-            } else {
-                World mainWorld = Bukkit.getWorld(worldConfig.getMainWorld());
-                if (mainWorld != null) {
-                    player.teleport(mainWorld.getSpawnLocation());
+            // Quit before the task ran: keep the return location for the next join
+            if (!player.isOnline()) return;
+            TickBudget budget = plugin.getTickBudget();
+            long begunAt = budget.begin();
+            try {
+                if (returnLoc != null && returnLoc.getWorld() != null) {
+                    player.teleport(returnLoc);
+                    playerStates.clearReturnLocation(player.getUniqueId());
                 } else {
-                    plugin.getLogger().warning("Main world '" + worldConfig.getMainWorld() + "' not found for teleport!");
+                    World mainWorld = Bukkit.getWorld(worldConfig.getMainWorld());
+                    if (mainWorld != null) {
+                        player.teleport(mainWorld.getSpawnLocation());
+                    } else {
+                        plugin.getLogger().warning("Main world '" + worldConfig.getMainWorld() + "' not found for teleport!");
+                    }
                 }
+            } finally {
+                budget.end(begunAt);
             }
         });
     }
 
-    public Map<String, PlayerTimerData> getActiveTimers() {
-        return activeTimers;
+    public SessionTable getSessions() {
+        return sessions;
+    }
+
+    public SnapshotCache getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * Sends a non-critical message, built when it is sent, to a player who is still online.
+     */
+    private void sendDeferred(Player player, Supplier<String> message) {
+        plugin.getTickBudget().defer(() -> {
+            if (player.isOnline()) {
+                player.sendMessage(message.get());
+            }
+        });
+    }
+
+    /**
+     * Ends a player's session in a world and drops everything held in memory for it.
+     */
+    private void clearLocal(UUID uuid, String worldName) {
+        int slot = sessions.find(uuid, worldName);
+        if (slot != SessionTable.NO_SLOT) {
+            plugin.getSessionHistory().close(uuid, worldName, sessions.getSecondsUsed(slot), SessionRecord.EndReason.RESET);
+            sessions.remove(slot);
+        }
+        cooldownLedger.remove(uuid, worldName);
+        snapshots.remove(uuid, worldName);
+        plugin.getCooldownDenials().invalidate(uuid);
+    }
+
+    private void publishSnapshot(PlayerTimerData data, long limit, boolean tracking) {
+        publishSnapshot(data.getPlayerUuid(), data.getWorldName(), data.getSecondsUsed(), limit,
+                data.getCooldownUntil(), tracking);
+    }
+
+    private void publishSnapshot(UUID uuid, String worldName, long secondsUsed, long limit,
+                                 long cooldownUntil, boolean tracking) {
+        // Counting on is capped a little past the next resync, in case the timer task stops
+        snapshots.publish(new SessionSnapshot(uuid, worldName.toLowerCase(), secondsUsed, limit, cooldownUntil,
+                tracking, plugin.getClock(), SNAPSHOT_RESYNC_SECONDS * 2L));
+    }
+
+    /**
+     * Stops a running snapshot from counting on while the tick is not counting the session.
+     * Only looks the snapshot up on this rare path; it resumes at the next resync.
+     */
+    private void pauseSnapshot(int slot) {
+        UUID uuid = sessions.getPlayer(slot);
+        String worldName = sessions.getWorldName(slot);
+        SessionSnapshot current = snapshots.get(uuid, worldName);
+        if (current != null && current.isRunning()) {
+            snapshots.publish(new SessionSnapshot(uuid, worldName, sessions.getSecondsUsed(slot), sessions.getLimit(slot),
+                    sessions.getCooldownUntil(slot), true));
+        }
+    }
+
+    /**
+     * Returns the timer config for a slot's world, resolved once per world id until the next reload.
+     */
+    private WorldConfig tickConfig(int slot, String worldName) {
+        int worldId = sessions.getWorldId(slot);
+        if (worldId >= tickConfigNames.length) {
+            int length = Math.max(worldId + 1, tickConfigNames.length * 2);
+            tickConfigs = Arrays.copyOf(tickConfigs, length);
+            tickConfigNames = Arrays.copyOf(tickConfigNames, length);
+        }
+        // Identity check: a released id reused for another world comes with a different name object
+        if (tickConfigNames[worldId] != worldName) {
+            tickConfigs[worldId] = plugin.getPluginConfig().getTimerConfig(worldName);
+            tickConfigNames[worldId] = worldName;
+        }
+        return tickConfigs[worldId];
+    }
+
+    /**
+     * Returns the limit resolved for the current or most recent session, or UNKNOWN_LIMIT.
+     */
+    private long knownLimit(UUID uuid, String worldName) {
+        int slot = sessions.find(uuid, worldName);
+        if (slot != SessionTable.NO_SLOT) {
+            return sessions.getLimit(slot);
+        }
+        SessionSnapshot previous = snapshots.get(uuid, worldName);
+        return previous != null ? previous.getLimit() : SessionSnapshot.UNKNOWN_LIMIT;
     }
 }
@@ -5,15 +5,22 @@ import org.bukkit.scheduler.BukkitRunnable;
 public class TimerTask extends BukkitRunnable {
 
     private final TimerManager timerManager;
+    private final TickBudget tickBudget;
     private final int tickSeconds;
 
-    public TimerTask(TimerManager timerManager, int tickSeconds) {
+    public TimerTask(TimerManager timerManager, TickBudget tickBudget, int tickSeconds) {
         this.timerManager = timerManager;
+        this.tickBudget = tickBudget;
         this.tickSeconds = tickSeconds;
     }
 
     @Override
     public void run() {
-        timerManager.tick(tickSeconds);
+        long begunAt = tickBudget.begin();
+        try {
+            timerManager.tick(tickSeconds);
+        } finally {
+            tickBudget.end(begunAt);
+        }
     }
 }
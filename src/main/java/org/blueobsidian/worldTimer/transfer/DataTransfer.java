@@ -0,0 +1,390 @@
+package org.blueobsidian.worldTimer.transfer;
+
+import org.blueobsidian.worldTimer.WorldTimer;
+import org.blueobsidian.worldTimer.storage.DataBatch;
+import org.blueobsidian.worldTimer.storage.DataVisitor;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.storage.StoredLocation;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves timer rows, last worlds and return locations between storage and gzip compressed
+ * JSON Lines or CSV files in {@code plugins/WorldTimer/exports}. Exports read storage
+ * through a cursor and write each row as it arrives; imports read a line at a time and
+ * write in batches. Memory stays flat however many rows there are. Transfers run on an
+ * async task, one at a time, and report progress to whoever started them.
+ * <p>
+ * They take far longer than a storage operation's timeout, so they do not go through the
+ * storage executor; instead {@link #stop(long)} cancels and waits for a running transfer
+ * before the backend is closed. Import batches are small and spaced out, so main-thread
+ * saves waiting on the same storage lock only ever wait for one batch.
+ */
+public class DataTransfer {
+
+    private static final int IMPORT_BATCH_SIZE = 250;
+    // Gap between import batches, letting writers queued on the storage lock in
+    private static final long IMPORT_BATCH_PAUSE_MILLIS = 2;
+    private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Malformed lines logged in full per import; the rest are only counted
+    private static final int MAX_LOGGED_ERRORS = 5;
+
+    private final WorldTimer plugin;
+    private final StorageManager storage;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean cancelled;
+    // Completes when the running transfer's task has finished
+    private volatile CompletableFuture<Void> current = CompletableFuture.completedFuture(null);
+
+    public DataTransfer(WorldTimer plugin, StorageManager storage) {
+        this.plugin = plugin;
+        this.storage = storage;
+    }
+
+    public File getFolder() {
+        return new File(plugin.getDataFolder(), "exports");
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Cancels a running transfer and waits for it to stop. An export leaves no file behind;
+     * an import keeps the batches already written. Called on shutdown, before the storage
+     * backend is closed.
+     */
+    public void stop(long awaitMillis) {
+        cancelled = true;
+        try {
+            current.get(awaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            plugin.getLogger().warning("Data transfer still running after " + awaitMillis + " ms.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Already reported by the transfer
+        }
+    }
+
+    /**
+     * Starts exporting to a new timestamped file. Returns false if a transfer is already running.
+     */
+    public boolean startExport(TransferFormat format, CommandSender sender) {
+        if (!running.compareAndSet(false, true)) return false;
+        String name = "worldtimer-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())
+                + "." + format.getExtension() + ".gz";
+        File file = new File(getFolder(), name);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        current = done;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                long started = System.currentTimeMillis();
+                long rows = export(file, format, count -> report(sender, "Exported " + count + " row(s)..."));
+                report(sender, ChatColor.GREEN + "Exported " + rows + " row(s) to " + file.getName()
+                        + " in " + (System.currentTimeMillis() - started) + " ms.");
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Export to " + file.getName() + " failed", e);
+                report(sender, ChatColor.RED + "Export failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+                done.complete(null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Starts importing a file. Returns false if a transfer is already running.
+     */
+    public boolean startImport(File file, CommandSender sender) {
+        if (!running.compareAndSet(false, true)) return false;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        current = done;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                long started = System.currentTimeMillis();
+                ImportResult result = importFile(file, count -> report(sender, "Imported " + count + " row(s)..."));
+                report(sender, ChatColor.GREEN + "Imported " + result.imported() + " row(s) from " + file.getName()
+                        + " in " + (System.currentTimeMillis() - started) + " ms"
+                        + (result.skipped() > 0 ? ", skipped " + result.skipped() + " malformed line(s)." : "."));
+                // Cooldowns are enforced from memory, so pick up the imported ones
+                List<PlayerTimerData> cooldowns = storage.loadActiveCooldowns(plugin.getClock().seconds());
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getTimerManager().mergeCooldowns(cooldowns));
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Import from " + file.getName() + " failed", e);
+                report(sender, ChatColor.RED + "Import failed: " + e.getMessage());
+            } finally {
+                running.set(false);
+                done.complete(null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Writes every stored row to a gzip compressed file and returns the row count.
+     * The file only appears once it is complete. Runs on the calling thread.
+     */
+    public long export(File file, TransferFormat format, Progress progress) throws IOException {
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists()) {
+            folder.mkdirs();
+        }
+        File temp = new File(folder, file.getName() + ".tmp");
+        ExportWriter writer;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp.toPath()), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer = new ExportWriter(out, format, progress, this::checkCancelled);
+            String header = format.header();
+            if (header != null) {
+                out.write(header);
+                out.write('\n');
+            }
+            storage.exportData(writer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return writer.rows;
+    }
+
+    /**
+     * Reads a JSON Lines or CSV file, gzip compressed or not, into storage in batches.
+     * Malformed lines are skipped and counted. Runs on the calling thread.
+     *
+     * @throws IOException if the file cannot be read or a batch could not be written
+     */
+    public ImportResult importFile(File file, Progress progress) throws IOException {
+        TransferFormat format = TransferFormat.fromFileName(file.getName());
+        if (format == null) {
+            throw new IOException("Unknown file type, expected .jsonl, .csv, .jsonl.gz or .csv.gz");
+        }
+
+        DataBatch batch = new DataBatch();
+        long imported = 0;
+        long skipped = 0;
+        long lineNumber = 0;
+        long reportedAt = System.currentTimeMillis();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                open(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                checkCancelled();
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    Map<String, String> fields = format.decode(line);
+                    if (fields == null) continue;
+                    addRow(fields, batch);
+                } catch (IllegalArgumentException e) {
+                    if (skipped++ < MAX_LOGGED_ERRORS) {
+                        plugin.getLogger().warning("Skipping line " + lineNumber + " of " + file.getName() + ": " + e.getMessage());
+                    }
+                    continue;
+                }
+
+                if (batch.size() >= IMPORT_BATCH_SIZE) {
+                    imported += write(batch);
+                    pause();
+                    long now = System.currentTimeMillis();
+                    if (now - reportedAt >= PROGRESS_INTERVAL_MILLIS) {
+                        reportedAt = now;
+                        progress.report(imported);
+                    }
+                }
+            }
+        }
+        imported += write(batch);
+        return new ImportResult(imported, skipped);
+    }
+
+    private void checkCancelled() throws IOException {
+        if (cancelled) {
+            throw new IOException("Cancelled, the plugin is disabling");
+        }
+    }
+
+    private static void pause() throws IOException {
+        try {
+            Thread.sleep(IMPORT_BATCH_PAUSE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    private int write(DataBatch batch) throws IOException {
+        int size = batch.size();
+        if (size == 0) return 0;
+        if (!storage.importData(batch)) {
+            throw new IOException("Storage rejected a batch of " + size + " row(s), see the log");
+        }
+        batch.clear();
+        return size;
+    }
+
+    private static void addRow(Map<String, String> fields, DataBatch batch) {
+        String type = require(fields, "type");
+        UUID uuid = UUID.fromString(require(fields, "uuid"));
+        String world = require(fields, "world");
+        switch (type) {
+            case "timer" -> batch.addTimer(new PlayerTimerData(uuid, world.toLowerCase(),
+                    Long.parseLong(require(fields, "seconds_used")), Long.parseLong(require(fields, "cooldown_until"))));
+            case "last_world" -> batch.addLastWorld(uuid, world);
+            case "return_location" -> batch.addReturnLocation(uuid, new StoredLocation(world,
+                    Double.parseDouble(require(fields, "x")), Double.parseDouble(require(fields, "y")),
+                    Double.parseDouble(require(fields, "z")), Float.parseFloat(fields.getOrDefault("yaw", "0")),
+                    Float.parseFloat(fields.getOrDefault("pitch", "0"))));
+            default -> throw new IllegalArgumentException("unknown row type '" + type + "'");
+        }
+    }
+
+    private static String require(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing '" + name + "'");
+        }
+        return value;
+    }
+
+    /**
+     * Opens a file, unwrapping gzip when it starts with the gzip magic bytes.
+     */
+    private static InputStream open(File file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    private void report(CommandSender sender, String message) {
+        plugin.getLogger().info(ChatColor.stripColor(message));
+        if (sender instanceof ConsoleCommandSender) return;
+        try {
+            Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(message));
+        } catch (RuntimeException e) {
+            // Plugin is disabling
+        }
+    }
+
+    /**
+     * Receives the number of rows moved so far, every few seconds.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        void report(long rows);
+    }
+
+    public record ImportResult(long imported, long skipped) {
+    }
+
+    @FunctionalInterface
+    private interface Cancellation {
+        void check() throws IOException;
+    }
+
+    /**
+     * Encodes rows from storage straight into the output.
+     */
+    private static final class ExportWriter implements DataVisitor {
+
+        private final Writer out;
+        private final TransferFormat format;
+        private final Progress progress;
+        private final Cancellation cancellation;
+        private final String[] row = new String[TransferFormat.FIELDS.length];
+        private long rows;
+        private long reportedAt = System.currentTimeMillis();
+
+        ExportWriter(Writer out, TransferFormat format, Progress progress, Cancellation cancellation) {
+            this.out = out;
+            this.format = format;
+            this.progress = progress;
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public void timer(PlayerTimerData data) throws IOException {
+            begin("timer", data.getPlayerUuid(), data.getWorldName());
+            row[3] = Long.toString(data.getSecondsUsed());
+            row[4] = Long.toString(data.getCooldownUntil());
+            write();
+        }
+
+        @Override
+        public void lastWorld(UUID playerUuid, String worldName) throws IOException {
+            begin("last_world", playerUuid, worldName);
+            write();
+        }
+
+        @Override
+        public void returnLocation(UUID playerUuid, StoredLocation location) throws IOException {
+            begin("return_location", playerUuid, location.world());
+            row[5] = Double.toString(location.x());
+            row[6] = Double.toString(location.y());
+            row[7] = Double.toString(location.z());
+            row[8] = Float.toString(location.yaw());
+            row[9] = Float.toString(location.pitch());
+            write();
+        }
+
+        private void begin(String type, UUID playerUuid, String worldName) {
+            Arrays.fill(row, null);
+            row[0] = type;
+            row[1] = playerUuid.toString();
+            row[2] = worldName;
+        }
+
+        private void write() throws IOException {
+            out.write(format.encode(row));
+            out.write('\n');
+            rows++;
+            if ((rows & 1023) == 0) {
+                cancellation.check();
+                long now = System.currentTimeMillis();
+                if (now - reportedAt >= PROGRESS_INTERVAL_MILLIS) {
+                    reportedAt = now;
+                    progress.report(rows);
+                }
+            }
+        }
+    }
+}
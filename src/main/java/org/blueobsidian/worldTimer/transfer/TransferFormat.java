@@ -0,0 +1,289 @@
+package org.blueobsidian.worldTimer.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line formats for exported data. Every row has the same named fields, {@link #FIELDS};
+ * fields a row type does not use are left out (JSON Lines) or empty (CSV).
+ * Row types are {@code timer}, {@code last_world} and {@code return_location}.
+ */
+public enum TransferFormat {
+
+    JSONL("jsonl") {
+        @Override
+        public String header() {
+            return null;
+        }
+
+        @Override
+        public String encode(String[] row) {
+            StringBuilder line = new StringBuilder(128).append('{');
+            boolean first = true;
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (row[i] == null) continue;
+                if (!first) line.append(',');
+                first = false;
+                appendJsonString(line, FIELDS[i]).append(':');
+                if (i < NUMERIC_FROM) {
+                    appendJsonString(line, row[i]);
+                } else {
+                    line.append(row[i]);
+                }
+            }
+            return line.append('}').toString();
+        }
+
+        @Override
+        public Map<String, String> decode(String line) {
+            return parseFlatJson(line);
+        }
+    },
+
+    CSV("csv") {
+        @Override
+        public String header() {
+            return String.join(",", FIELDS);
+        }
+
+        @Override
+        public String encode(String[] row) {
+            StringBuilder line = new StringBuilder(128);
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) line.append(',');
+                if (row[i] != null) appendCsvValue(line, row[i]);
+            }
+            return line.toString();
+        }
+
+        @Override
+        public Map<String, String> decode(String line) {
+            if (line.equals(header())) return null;
+            List<String> values = splitCsv(line);
+            if (values.size() != FIELDS.length) {
+                throw new IllegalArgumentException("expected " + FIELDS.length + " columns, found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (!values.get(i).isEmpty()) {
+                    fields.put(FIELDS[i], values.get(i));
+                }
+            }
+            return fields;
+        }
+    };
+
+    public static final String[] FIELDS = {
+            "type", "uuid", "world", "seconds_used", "cooldown_until", "x", "y", "z", "yaw", "pitch"
+    };
+    // Fields from this index on are written as numbers
+    private static final int NUMERIC_FROM = 3;
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the first line of a file in this format, or null if it has none.
+     */
+    public abstract String header();
+
+    /**
+     * Encodes a row whose values are in {@link #FIELDS} order, null where unused.
+     */
+    public abstract String encode(String[] row);
+
+    /**
+     * Decodes a line into its non-empty fields, or returns null for a header line.
+     *
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public abstract Map<String, String> decode(String line);
+
+    public static TransferFormat parse(String value) {
+        for (TransferFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the format from a file name such as {@code export.csv.gz}, or null if unknown.
+     */
+    public static TransferFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        for (TransferFormat format : values()) {
+            if (name.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static StringBuilder appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Parses a JSON object whose values are strings, numbers, booleans or null.
+     * Nested objects and arrays are not part of the export format and are rejected.
+     */
+    private static Map<String, String> parseFlatJson(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+        expect(line, pos, '{');
+        if (peek(line, pos) == '}') {
+            return fields;
+        }
+        while (true) {
+            String key = readJsonString(line, pos);
+            expect(line, pos, ':');
+            String value;
+            if (peek(line, pos) == '"') {
+                value = readJsonString(line, pos);
+            } else {
+                int start = pos[0];
+                while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0) {
+                    pos[0]++;
+                }
+                value = line.substring(start, pos[0]);
+                if (value.isEmpty() || value.charAt(0) == '{' || value.charAt(0) == '[') {
+                    throw new IllegalArgumentException("unsupported value for '" + key + "'");
+                }
+                if (value.equals("null")) value = null;
+            }
+            if (value != null) {
+                fields.put(key, value);
+            }
+            char next = peek(line, pos);
+            pos[0]++;
+            if (next == '}') break;
+            if (next != ',') throw new IllegalArgumentException("expected ',' or '}' at " + (pos[0] - 1));
+        }
+        if (skipSpace(line, pos[0]) != line.length()) {
+            throw new IllegalArgumentException("trailing characters");
+        }
+        return fields;
+    }
+
+    private static String readJsonString(String line, int[] pos) {
+        expect(line, pos, '"');
+        StringBuilder value = new StringBuilder();
+        int i = pos[0];
+        while (true) {
+            if (i >= line.length()) throw new IllegalArgumentException("unterminated string");
+            char c = line.charAt(i++);
+            if (c == '"') break;
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (i >= line.length()) throw new IllegalArgumentException("unterminated escape");
+            char escaped = line.charAt(i++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (i + 4 > line.length()) throw new IllegalArgumentException("bad unicode escape");
+                    value.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                    i += 4;
+                }
+                default -> throw new IllegalArgumentException("bad escape \\" + escaped);
+            }
+        }
+        pos[0] = i;
+        return value.toString();
+    }
+
+    private static void expect(String line, int[] pos, char expected) {
+        if (peek(line, pos) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' at " + pos[0]);
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it, or 0 at the end.
+     */
+    private static char peek(String line, int[] pos) {
+        pos[0] = skipSpace(line, pos[0]);
+        return pos[0] < line.length() ? line.charAt(pos[0]) : 0;
+    }
+
+    private static int skipSpace(String line, int i) {
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) i++;
+        return i;
+    }
+
+    private static void appendCsvValue(StringBuilder out, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>(FIELDS.length);
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && value.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("unterminated quote");
+        values.add(value.toString());
+        return values;
+    }
+}
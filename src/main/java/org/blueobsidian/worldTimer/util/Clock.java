@@ -0,0 +1,21 @@
+package org.blueobsidian.worldTimer.util;
+
+/**
+ * Source of the current time for timer and cooldown logic. Production uses a
+ * {@link TickClock}; tests and benchmarks use a {@link SimulatedClock} so hours of
+ * timer behaviour run in milliseconds.
+ */
+public interface Clock {
+
+    /**
+     * Returns the current time in epoch milliseconds.
+     */
+    long millis();
+
+    /**
+     * Returns the current time in epoch seconds, the unit cooldowns are stored in.
+     */
+    default long seconds() {
+        return millis() / 1000;
+    }
+}
@@ -0,0 +1,108 @@
+package org.blueobsidian.worldTimer.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded FIFO buffer backed by a fixed array. Producers never block or allocate;
+ * when the buffer is full, new items are rejected and counted as dropped.
+ * <p>
+ * Lock-free: every slot carries a sequence number telling producers and consumers
+ * whose turn it is, and positions are claimed with a compare-and-set, so a consumer
+ * draining a large batch never holds up an {@link #offer}.
+ */
+public final class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> items;
+    // Slot i is free for the producer at position p when it holds p,
+    // and filled for the consumer at position p when it holds p + 1
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.items = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an item. Returns false (and counts a drop) if the buffer is full.
+     */
+    public boolean offer(T item) {
+        long pos = tail.get();
+        while (true) {
+            int slot = (int) (pos % capacity);
+            long diff = sequences.get(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.set(slot, item);
+                    sequences.set(slot, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // Slot still holds the item from one lap ago
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get(); // another producer took this position
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} of the oldest items into the given collection.
+     * Returns the number of items moved.
+     */
+    public int drainTo(Collection<? super T> target, int max) {
+        int count = 0;
+        while (count < max) {
+            T item = poll();
+            if (item == null) break;
+            target.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    private T poll() {
+        long pos = head.get();
+        while (true) {
+            int slot = (int) (pos % capacity);
+            long diff = sequences.get(slot) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T item = items.getAndSet(slot, null);
+                    sequences.set(slot, pos + capacity);
+                    return item;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null; // empty, or the producer has not finished writing this slot
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,33 @@
+package org.blueobsidian.worldTimer.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when told to. Used by tests and benchmarks together with
+ * {@code WorldTimer.setClock} to make cooldowns and session times deterministic.
+ */
+public final class SimulatedClock implements Clock {
+
+    private final AtomicLong millis;
+
+    public SimulatedClock(long startMillis) {
+        this.millis = new AtomicLong(startMillis);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    public void set(long millis) {
+        this.millis.set(millis);
+    }
+
+    public void advanceMillis(long millis) {
+        this.millis.addAndGet(millis);
+    }
+
+    public void advanceSeconds(long seconds) {
+        advanceMillis(seconds * 1000);
+    }
+}
@@ -0,0 +1,36 @@
+package org.blueobsidian.worldTimer.util;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Clock that reads the system time once per server tick. Everything on the main thread
+ * within a tick sees the same time, and hot paths do not read the system clock per call.
+ * Readers on other threads see the value from the latest tick, at most one tick old.
+ */
+public final class TickClock implements Clock {
+
+    private volatile long millis = System.currentTimeMillis();
+    private BukkitTask task;
+
+    public void start(Plugin plugin) {
+        stop();
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::update, 0L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public void update() {
+        millis = System.currentTimeMillis();
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+}
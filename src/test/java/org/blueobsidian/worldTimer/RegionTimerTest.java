@@ -0,0 +1,104 @@
+package org.blueobsidian.worldTimer;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.config.RegionConfig;
+import org.blueobsidian.worldTimer.region.RegionIndex;
+import org.bukkit.Location;
+import org.bukkit.boss.BossBar;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionTimerTest extends WorldTimerTestHarness {
+
+    @Test
+    void walkingInAndOutStartsAndEndsRegionSession() {
+        PlayerMock player = join();
+        teleport(player, arena);
+
+        assertFalse(player.simulatePlayerMove(inPit()).isCancelled());
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "pit"));
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "arena"));
+
+        advanceSeconds(2);
+        player.simulatePlayerMove(outsidePit());
+
+        assertFalse(plugin.getTimerManager().isTracking(player.getUniqueId(), "pit"));
+        assertEquals(2, plugin.getTimerManager().getData(player.getUniqueId(), "pit").getSecondsUsed());
+    }
+
+    @Test
+    void expiryStartsCooldownAndBlocksWalkingBackIn() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        player.simulatePlayerMove(inPit());
+        drainMessages(player);
+
+        advanceSeconds(5);
+        // Sent to the region's world spawn one tick after expiry
+        server.getScheduler().performOneTick();
+
+        assertFalse(plugin.getTimerManager().isTracking(player.getUniqueId(), "pit"));
+        assertTrue(plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "pit") > 0);
+        drainMessages(player);
+
+        assertTrue(player.simulatePlayerMove(inPit()).isCancelled());
+        assertEquals(1, countStartingWith(drainMessages(player), "cooldown pit"));
+    }
+
+    @Test
+    void regionCountdownStaysUpInsideWorldWithoutOne() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        player.simulatePlayerMove(inVault());
+
+        // The arena session ticks too, and shows nothing
+        advanceSeconds(3);
+        BossBar bar = plugin.getCountdownDisplay().getBossBar(player.getUniqueId());
+        assertNotNull(bar);
+        assertTrue(bar.isVisible());
+        assertTrue(bar.getTitle().startsWith("vault "));
+
+        // Leaving the pit, which the player never entered, leaves the vault's bar alone
+        plugin.getTimerManager().handleWorldExit(player, "pit");
+        assertTrue(bar.isVisible());
+
+        player.simulatePlayerMove(outsideVault());
+        assertFalse(bar.isVisible());
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "arena"));
+    }
+
+    @Test
+    void worldSizedRegionIsCheckedWithoutIndexingEveryChunk() {
+        RegionConfig pit = plugin.getPluginConfig().getRegionConfig("pit");
+        RegionConfig everywhere = new RegionConfig(pit, "arena", -1_000_000, 0, -1_000_000, 1_000_000, 255, 1_000_000);
+
+        RegionIndex index = new RegionIndex(List.of(pit, everywhere));
+
+        assertEquals(pit.getChunkCount(), index.getChunks());
+        assertArrayEquals(new RegionConfig[]{pit, everywhere}, index.candidates(inPit()));
+        assertArrayEquals(new RegionConfig[]{everywhere}, index.candidates(new Location(arena, 500_000, 64, -500_000)));
+    }
+
+    private Location inPit() {
+        return new Location(arena, 105, 64, 105);
+    }
+
+    private Location outsidePit() {
+        return new Location(arena, 120, 64, 105);
+    }
+
+    private Location inVault() {
+        return new Location(arena, 205, 64, 205);
+    }
+
+    private Location outsideVault() {
+        return new Location(arena, 220, 64, 205);
+    }
+}
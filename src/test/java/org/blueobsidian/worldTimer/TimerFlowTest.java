@@ -0,0 +1,111 @@
+package org.blueobsidian.worldTimer;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerFlowTest extends WorldTimerTestHarness {
+
+    @Test
+    void enteringTimedWorldStartsSession() {
+        PlayerMock player = join();
+
+        assertTrue(teleport(player, arena));
+
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "arena"));
+        assertEquals(List.of("enter arena 10s"), drainMessages(player));
+    }
+
+    @Test
+    void warningFiresOnce() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        drainMessages(player);
+
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            advanceSeconds(1);
+            messages.addAll(drainMessages(player));
+        }
+
+        assertEquals(1, countStartingWith(messages, "warn arena"));
+    }
+
+    @Test
+    void expiryTeleportsToMainWorldAndStartsCooldown() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        drainMessages(player);
+
+        advanceSeconds(10);
+        // Teleport back runs one tick after expiry
+        server.getScheduler().performOneTick();
+
+        assertSame(lobby, player.getWorld());
+        assertEquals(1, countStartingWith(drainMessages(player), "expired arena"));
+        assertTrue(plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena") > 0);
+        assertEquals(0, plugin.getTimerManager().getSessions().size());
+    }
+
+    @Test
+    void cooldownBlocksReentryAndRateLimitsMessage() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(10);
+        server.getScheduler().performOneTick();
+        drainMessages(player);
+
+        assertFalse(teleport(player, arena));
+        assertFalse(teleport(player, arena));
+
+        assertSame(lobby, player.getWorld());
+        assertEquals(1, countStartingWith(drainMessages(player), "cooldown arena"));
+    }
+
+    @Test
+    void cooldownLapsesWithoutRunningTheServer() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(10);
+        server.getScheduler().performOneTick();
+        assertFalse(teleport(player, arena));
+
+        // An hour passes on the clock only; no ticks are simulated
+        clock.advanceSeconds(3600);
+
+        assertEquals(0, plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena"));
+        assertTrue(teleport(player, arena));
+    }
+
+    @Test
+    void quitSavesProgress() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(3);
+
+        player.disconnect();
+
+        PlayerTimerData stored = plugin.getStorageManager().loadData(player.getUniqueId(), "arena");
+        assertEquals(3, stored.getSecondsUsed());
+        assertEquals(0, plugin.getTimerManager().getSessions().size());
+    }
+
+    @Test
+    void quitBeforeJoinPrefetchLeavesNoCachedState() {
+        PlayerMock player = server.addPlayer();
+        player.disconnect();
+
+        awaitStorage();
+        server.getScheduler().performOneTick();
+
+        assertEquals(0, plugin.getPlayerStates().getCached());
+    }
+}
@@ -0,0 +1,48 @@
+package org.blueobsidian.worldTimer;
+
+import be.seeseemelk.mockbukkit.WorldMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.config.PluginConfig;
+import org.blueobsidian.worldTimer.config.WorldConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldPatternTest extends WorldTimerTestHarness {
+
+    @Test
+    void patternResolvesEachMatchingWorldUnderItsOwnName() {
+        PluginConfig config = plugin.getPluginConfig();
+        server.addSimpleWorld("Dungeon_1");
+
+        WorldConfig first = config.getWorldConfig("Dungeon_1");
+        assertEquals("Dungeon_1", first.getWorldName());
+        assertEquals(20, first.getDefaultLimitSeconds());
+        assertSame(first, config.getWorldConfig("dungeon_1"));
+        assertEquals("dungeon_2", config.getWorldConfig("dungeon_2").getWorldName());
+        assertNull(config.getWorldConfig("dungeons"));
+        assertFalse(config.isWorldConfigured("lobby"));
+
+        // Only loaded worlds are cached
+        assertTrue(config.getWorldConfigs().containsKey("dungeon_1"));
+        assertFalse(config.getWorldConfigs().containsKey("dungeon_2"));
+    }
+
+    @Test
+    void sessionInPatternWorldSurvivesReload() {
+        WorldMock dungeon = server.addSimpleWorld("dungeon_1");
+        PlayerMock player = join();
+        teleport(player, dungeon);
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "dungeon_1"));
+
+        advanceSeconds(3);
+        plugin.reload();
+
+        assertTrue(plugin.getTimerManager().isTracking(player.getUniqueId(), "dungeon_1"));
+        assertEquals(3, plugin.getTimerManager().getData(player.getUniqueId(), "dungeon_1").getSecondsUsed());
+    }
+}
@@ -0,0 +1,67 @@
+package org.blueobsidian.worldTimer;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorldTimerCommandTest extends WorldTimerTestHarness {
+
+    @Test
+    void addTimeGivesBackUsedSeconds() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(6);
+
+        server.execute("worldtimer", server.getConsoleSender(), "addtime", player.getName(), "arena", "4s")
+                .assertSucceeded();
+
+        assertEquals(2, plugin.getTimerManager().getData(player.getUniqueId(), "arena").getSecondsUsed());
+        // Still inside with 8s left, so no expiry after another 5 seconds
+        advanceSeconds(5);
+        server.getScheduler().performOneTick();
+        assertSame(arena, player.getWorld());
+    }
+
+    @Test
+    void resetClearsUsageAndCooldown() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(10);
+        server.getScheduler().performOneTick();
+
+        server.execute("worldtimer", server.getConsoleSender(), "reset", player.getName(), "arena")
+                .assertSucceeded();
+
+        assertEquals(0, plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena"));
+        assertEquals(0, plugin.getTimerManager().getData(player.getUniqueId(), "arena").getSecondsUsed());
+        assertTrue(teleport(player, arena));
+    }
+
+    @Test
+    void setCooldownBlocksEntry() {
+        PlayerMock player = join();
+
+        server.execute("worldtimer", server.getConsoleSender(), "setcooldown", player.getName(), "arena", "30s")
+                .assertSucceeded();
+
+        assertFalse(teleport(player, arena));
+        assertSame(lobby, player.getWorld());
+        assertEquals(30, plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena"));
+    }
+
+    @Test
+    void reloadKeepsRunningSessions() {
+        PlayerMock player = join();
+        teleport(player, arena);
+        advanceSeconds(3);
+
+        server.execute("worldtimer", server.getConsoleSender(), "reload").assertSucceeded();
+        advanceSeconds(2);
+
+        assertEquals(5, plugin.getTimerManager().getData(player.getUniqueId(), "arena").getSecondsUsed());
+    }
+}
@@ -0,0 +1,127 @@
+package org.blueobsidian.worldTimer;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.WorldMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.util.SimulatedClock;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the plugin on a MockBukkit server with the test config.yml: in-memory storage,
+ * plain-text messages and the timed world "arena" (10s limit, warning at 5s, 60s cooldown)
+ * whose main world is "lobby". A second timed world "mine" is configured but only created
+ * by the load simulation, and the pattern "dungeon_*" (20s limit) times worlds a test
+ * creates. Helpers drive players through the real listeners and
+ * scheduler so tests exercise the same paths as a live server. Time comes from a
+ * {@link SimulatedClock} that only moves with {@link #advanceSeconds(long)} or when a
+ * test advances it directly.
+ */
+public abstract class WorldTimerTestHarness {
+
+    protected static final long TICKS_PER_SECOND = 20;
+
+    protected ServerMock server;
+    protected WorldTimer plugin;
+    protected WorldMock lobby;
+    protected WorldMock arena;
+    protected SimulatedClock clock;
+
+    private int worldChanges;
+
+    @BeforeEach
+    protected void startServer() {
+        server = MockBukkit.mock();
+        lobby = server.addSimpleWorld("lobby");
+        arena = server.addSimpleWorld("arena");
+        plugin = MockBukkit.load(WorldTimer.class);
+        clock = new SimulatedClock(System.currentTimeMillis());
+        plugin.setClock(clock);
+        server.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onWorldChange(PlayerChangedWorldEvent event) {
+                worldChanges++;
+            }
+        }, plugin);
+    }
+
+    @AfterEach
+    protected void stopServer() {
+        MockBukkit.unmock();
+    }
+
+    /**
+     * Adds a player standing in the lobby and runs the join pipeline to completion.
+     */
+    protected PlayerMock join() {
+        PlayerMock player = server.addPlayer();
+        player.setLocation(lobby.getSpawnLocation());
+        awaitStorage();
+        server.getScheduler().performOneTick();
+        drainMessages(player);
+        return player;
+    }
+
+    /**
+     * Blocks until every operation on the storage executor has finished, so their
+     * main-thread continuations are scheduled.
+     */
+    protected void awaitStorage() {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (plugin.getStorageExecutor().getPending() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Storage operations did not finish in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Teleports a player to another world through the normal event flow.
+     * Returns false if the teleport was cancelled.
+     */
+    protected boolean teleport(PlayerMock player, World world) {
+        Location from = player.getLocation();
+        int changesBefore = worldChanges;
+        if (!player.teleport(world.getSpawnLocation())) {
+            return false;
+        }
+        // Not every MockBukkit version fires the world change itself
+        if (worldChanges == changesBefore && from.getWorld() != world) {
+            server.getPluginManager().callEvent(new PlayerChangedWorldEvent(player, from.getWorld()));
+        }
+        return true;
+    }
+
+    /**
+     * Runs the scheduler for the given number of timer seconds, moving the clock along.
+     */
+    protected void advanceSeconds(long seconds) {
+        for (long i = 0; i < seconds; i++) {
+            clock.advanceSeconds(1);
+            server.getScheduler().performTicks(TICKS_PER_SECOND);
+        }
+    }
+
+    protected static List<String> drainMessages(PlayerMock player) {
+        List<String> messages = new ArrayList<>();
+        String message;
+        while ((message = player.nextMessage()) != null) {
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    protected static long countStartingWith(List<String> messages, String prefix) {
+        return messages.stream().filter(m -> m.startsWith(prefix)).count();
+    }
+}
@@ -0,0 +1,193 @@
+package org.blueobsidian.worldTimer.load;
+
+import org.blueobsidian.worldTimer.storage.DataBatch;
+import org.blueobsidian.worldTimer.storage.DataVisitor;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.SessionRecord;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.blueobsidian.worldTimer.storage.TimerChange;
+import org.bukkit.Location;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StorageManager} decorator that counts calls per method and whether they
+ * were made on the main thread.
+ */
+public class CountingStorage implements StorageManager {
+
+    private final StorageManager delegate;
+    private final Thread mainThread;
+    private final Map<String, LongAdder> mainThreadCalls = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> asyncCalls = new ConcurrentHashMap<>();
+
+    public CountingStorage(StorageManager delegate, Thread mainThread) {
+        this.delegate = delegate;
+        this.mainThread = mainThread;
+    }
+
+    @Override
+    public void init() {
+        delegate.init();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public PlayerTimerData loadData(UUID playerUuid, String worldName) {
+        count("loadData");
+        return delegate.loadData(playerUuid, worldName);
+    }
+
+    @Override
+    public List<PlayerTimerData> loadData(Map<UUID, String> playerWorlds) {
+        count("loadData(batch)");
+        return delegate.loadData(playerWorlds);
+    }
+
+    @Override
+    public void saveData(PlayerTimerData data) {
+        count("saveData");
+        delegate.saveData(data);
+    }
+
+    @Override
+    public List<PlayerTimerData> loadActiveCooldowns(long nowEpochSeconds) {
+        count("loadActiveCooldowns");
+        return delegate.loadActiveCooldowns(nowEpochSeconds);
+    }
+
+    @Override
+    public void resetData(UUID playerUuid, String worldName) {
+        count("resetData");
+        delegate.resetData(playerUuid, worldName);
+    }
+
+    @Override
+    public void saveLastWorld(UUID playerUuid, String worldName) {
+        count("saveLastWorld");
+        delegate.saveLastWorld(playerUuid, worldName);
+    }
+
+    @Override
+    public String loadLastWorld(UUID playerUuid) {
+        count("loadLastWorld");
+        return delegate.loadLastWorld(playerUuid);
+    }
+
+    @Override
+    public void saveReturnLocation(UUID playerUuid, Location location) {
+        count("saveReturnLocation");
+        delegate.saveReturnLocation(playerUuid, location);
+    }
+
+    @Override
+    public Location loadReturnLocation(UUID playerUuid) {
+        count("loadReturnLocation");
+        return delegate.loadReturnLocation(playerUuid);
+    }
+
+    @Override
+    public void clearReturnLocation(UUID playerUuid) {
+        count("clearReturnLocation");
+        delegate.clearReturnLocation(playerUuid);
+    }
+
+    @Override
+    public void appendSessionHistory(List<SessionRecord> records) {
+        count("appendSessionHistory");
+        delegate.appendSessionHistory(records);
+    }
+
+    @Override
+    public int pruneSessionHistory(long olderThanEpochSeconds) {
+        count("pruneSessionHistory");
+        return delegate.pruneSessionHistory(olderThanEpochSeconds);
+    }
+
+    @Override
+    public int pruneIdleTimers(long nowEpochSeconds, int limit) {
+        count("pruneIdleTimers");
+        return delegate.pruneIdleTimers(nowEpochSeconds, limit);
+    }
+
+    @Override
+    public int prunePlayerState(long olderThanEpochSeconds, int limit) {
+        count("prunePlayerState");
+        return delegate.prunePlayerState(olderThanEpochSeconds, limit);
+    }
+
+    @Override
+    public int compact(int maxPages) {
+        count("compact");
+        return delegate.compact(maxPages);
+    }
+
+    @Override
+    public void appendChanges(List<TimerChange> changes) {
+        count("appendChanges");
+        delegate.appendChanges(changes);
+    }
+
+    @Override
+    public List<TimerChange> loadChanges(long afterId, int limit) {
+        count("loadChanges");
+        return delegate.loadChanges(afterId, limit);
+    }
+
+    @Override
+    public long latestChangeId() {
+        count("latestChangeId");
+        return delegate.latestChangeId();
+    }
+
+    @Override
+    public int pruneChanges(long olderThanEpochSeconds) {
+        count("pruneChanges");
+        return delegate.pruneChanges(olderThanEpochSeconds);
+    }
+
+    @Override
+    public void noteRemoteKey(UUID playerUuid, String worldName) {
+        // Memory only, not a storage call
+        delegate.noteRemoteKey(playerUuid, worldName);
+    }
+
+    @Override
+    public void exportData(DataVisitor visitor) throws IOException {
+        count("exportData");
+        delegate.exportData(visitor);
+    }
+
+    @Override
+    public boolean importData(DataBatch batch) {
+        count("importData");
+        return delegate.importData(batch);
+    }
+
+    /**
+     * Returns report lines: one per method with main-thread and async call counts.
+     */
+    public List<String> summary() {
+        Map<String, long[]> rows = new TreeMap<>();
+        mainThreadCalls.forEach((method, calls) -> rows.computeIfAbsent(method, m -> new long[2])[0] = calls.sum());
+        asyncCalls.forEach((method, calls) -> rows.computeIfAbsent(method, m -> new long[2])[1] = calls.sum());
+        return rows.entrySet().stream()
+                .map(e -> String.format("%-22s %10d %10d", e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+    }
+
+    private void count(String method) {
+        Map<String, LongAdder> calls = Thread.currentThread() == mainThread ? mainThreadCalls : asyncCalls;
+        calls.computeIfAbsent(method, m -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,52 @@
+package org.blueobsidian.worldTimer.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects nanosecond samples for one kind of event and reports percentiles.
+ * Keeps every sample; a simulation run is bounded, so exact percentiles are affordable.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns one report line: sample count and p50/p90/p99/p99.9/max in microseconds.
+     */
+    public String summary() {
+        if (count == 0) {
+            return String.format("%-14s %8d", name, 0);
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format("%-14s %8d %9.1f %9.1f %9.1f %9.1f %9.1f", name, count,
+                micros(sorted, 0.50), micros(sorted, 0.90), micros(sorted, 0.99), micros(sorted, 0.999),
+                sorted[count - 1] / 1000.0);
+    }
+
+    public static String header() {
+        return String.format("%-14s %8s %9s %9s %9s %9s %9s", "event", "count", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+    }
+
+    private static double micros(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,183 @@
+package org.blueobsidian.worldTimer.load;
+
+import be.seeseemelk.mockbukkit.WorldMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.WorldTimerTestHarness;
+import org.blueobsidian.worldTimer.listener.PlayerListener;
+import org.blueobsidian.worldTimer.state.PlayerStateCache;
+import org.blueobsidian.worldTimer.storage.SQLiteStorage;
+import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simulates player churn against the real {@link PlayerListener} and {@link TimerManager}
+ * backed by a SQLite database in the plugin's temporary data folder, and prints main-thread
+ * latency percentiles per event and per tick, plus storage call counts.
+ * <p>
+ * Not part of the normal test run. Run with {@code mvn test -Pload-test}, tuning with
+ * {@code -Dsim.players}, {@code -Dsim.seconds}, {@code -Dsim.seed}, {@code -Dsim.join-chance},
+ * {@code -Dsim.quit-chance} and {@code -Dsim.teleport-chance} (chances are per player per second).
+ */
+@Tag("load")
+class PlayerChurnSimulation extends WorldTimerTestHarness {
+
+    private static final int PLAYERS = Integer.getInteger("sim.players", 2000);
+    private static final int SECONDS = Integer.getInteger("sim.seconds", 120);
+    private static final long SEED = Long.getLong("sim.seed", 42L);
+    private static final double JOIN_CHANCE = chance("sim.join-chance", 0.05);
+    private static final double QUIT_CHANCE = chance("sim.quit-chance", 0.01);
+    private static final double TELEPORT_CHANCE = chance("sim.teleport-chance", 0.05);
+    // One Minecraft tick
+    private static final long TICK_BUDGET_NANOS = 50_000_000L;
+
+    private final LatencyRecorder joins = new LatencyRecorder("join");
+    private final LatencyRecorder quits = new LatencyRecorder("quit");
+    private final LatencyRecorder teleports = new LatencyRecorder("teleport");
+    private final LatencyRecorder worldChanges = new LatencyRecorder("world-change");
+    private final LatencyRecorder serverTicks = new LatencyRecorder("server-tick");
+    private final LatencyRecorder timerTicks = new LatencyRecorder("timer-tick");
+
+    private CountingStorage storage;
+    private PlayerListener listener;
+    private List<World> worlds;
+
+    @Test
+    void simulate() {
+        WorldMock mine = server.addSimpleWorld("mine");
+        WorldMock plain = server.addSimpleWorld("plain");
+        worlds = List.of(lobby, plain, arena, mine);
+
+        // Only the simulation's own listener sees events; the plugin's stays idle
+        HandlerList.unregisterAll(plugin);
+        storage = new CountingStorage(new SQLiteStorage(plugin), Thread.currentThread());
+        storage.init();
+        // Own state cache, so last worlds and return locations go through the counted storage too
+        PlayerStateCache playerStates = new PlayerStateCache(plugin, storage);
+        TimerManager timerManager = new TimerManager(plugin, storage, plugin.getPermissionResolver(), playerStates);
+        timerManager.loadCooldowns();
+        listener = new PlayerListener(plugin, timerManager, storage, playerStates, plugin.getCooldownDenials());
+
+        Random random = new Random(SEED);
+        PlayerMock[] online = new PlayerMock[PLAYERS];
+        World[] lastWorld = new World[PLAYERS];
+        int peakOnline = 0;
+        long slowServerTicks = 0;
+        long startedAt = System.nanoTime();
+
+        for (int second = 0; second < SECONDS; second++) {
+            int onlineCount = 0;
+            for (int i = 0; i < PLAYERS; i++) {
+                PlayerMock player = online[i];
+                if (player == null) {
+                    if (random.nextDouble() < JOIN_CHANCE) {
+                        online[i] = join(i, lastWorld[i] != null ? lastWorld[i] : lobby);
+                        onlineCount++;
+                    }
+                } else if (random.nextDouble() < QUIT_CHANCE) {
+                    lastWorld[i] = player.getWorld();
+                    quit(player);
+                    online[i] = null;
+                } else {
+                    if (random.nextDouble() < TELEPORT_CHANCE) {
+                        teleport(player, randomOtherWorld(random, player.getWorld()));
+                    }
+                    onlineCount++;
+                }
+            }
+            peakOnline = Math.max(peakOnline, onlineCount);
+
+            // One timer second is 20 server ticks; deferred join handlers and teleports run here.
+            // The simulated clock moves with it, so cooldowns lapse on simulated time
+            clock.advanceSeconds(1);
+            for (int tick = 0; tick < TICKS_PER_SECOND; tick++) {
+                long t0 = System.nanoTime();
+                server.getScheduler().performOneTick();
+                long elapsed = System.nanoTime() - t0;
+                serverTicks.record(elapsed);
+                if (elapsed > TICK_BUDGET_NANOS) {
+                    slowServerTicks++;
+                }
+            }
+            long t0 = System.nanoTime();
+            timerManager.tick(1);
+            timerTicks.record(System.nanoTime() - t0);
+        }
+
+        long wallMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        playerStates.stop();
+        storage.shutdown();
+
+        System.out.println();
+        System.out.println("=== Player churn: " + PLAYERS + " players, " + SECONDS + "s simulated, seed " + SEED + " ===");
+        System.out.println("Wall time: " + wallMillis + " ms, peak online: " + peakOnline
+                + ", server ticks over 50 ms: " + slowServerTicks);
+        System.out.println(LatencyRecorder.header());
+        for (LatencyRecorder recorder : List.of(joins, quits, teleports, worldChanges, serverTicks, timerTicks)) {
+            System.out.println(recorder.summary());
+        }
+        System.out.println(String.format("%-22s %10s %10s", "storage call", "main", "async"));
+        storage.summary().forEach(System.out::println);
+
+        assertEquals(SECONDS, timerTicks.getCount());
+    }
+
+    private PlayerMock join(int index, World world) {
+        PlayerMock player = new PlayerMock(server, "sim" + index, new UUID(SEED, index));
+        server.addPlayer(player);
+        player.setLocation(world.getSpawnLocation());
+        long t0 = System.nanoTime();
+        listener.onPlayerJoin(new PlayerJoinEvent(player, ""));
+        joins.record(System.nanoTime() - t0);
+        return player;
+    }
+
+    private void quit(PlayerMock player) {
+        long t0 = System.nanoTime();
+        listener.onPlayerQuit(new PlayerQuitEvent(player, ""));
+        quits.record(System.nanoTime() - t0);
+        player.disconnect();
+    }
+
+    private void teleport(PlayerMock player, World to) {
+        Location from = player.getLocation();
+        PlayerTeleportEvent event = new PlayerTeleportEvent(player, from, to.getSpawnLocation());
+        long t0 = System.nanoTime();
+        listener.onPlayerTeleport(event);
+        teleports.record(System.nanoTime() - t0);
+        if (event.isCancelled()) {
+            return;
+        }
+
+        player.setLocation(event.getTo());
+        t0 = System.nanoTime();
+        listener.onWorldChange(new PlayerChangedWorldEvent(player, from.getWorld()));
+        worldChanges.record(System.nanoTime() - t0);
+    }
+
+    private World randomOtherWorld(Random random, World current) {
+        World world;
+        do {
+            world = worlds.get(random.nextInt(worlds.size()));
+        } while (world == current);
+        return world;
+    }
+
+    private static double chance(String property, double fallback) {
+        String value = System.getProperty(property);
+        return value != null ? Double.parseDouble(value) : fallback;
+    }
+}
@@ -0,0 +1,124 @@
+package org.blueobsidian.worldTimer.storage;
+
+import org.blueobsidian.worldTimer.WorldTimerTestHarness;
+import org.bukkit.Location;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StorageMaintenanceTest extends WorldTimerTestHarness {
+
+    private static final long DAY = 86400;
+
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+    private File database;
+    private SQLiteStorage storage;
+    private StorageMaintenance maintenance;
+
+    @BeforeEach
+    void openDatabase() {
+        database = new File(plugin.getDataFolder(), "data.db");
+        database.delete();
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        if (storage != null) {
+            storage.shutdown();
+        }
+        database.delete();
+    }
+
+    @Test
+    void idleTimerRowsArePrunedInBatches() throws IOException {
+        init();
+        long now = clock.seconds();
+        for (int i = 0; i < 25; i++) {
+            storage.saveData(new PlayerTimerData(new UUID(1, i), "arena", 0, now - 10));
+        }
+        storage.saveData(new PlayerTimerData(alice, "arena", 5, 0));
+        storage.saveData(new PlayerTimerData(bob, "arena", 0, now + 60));
+
+        maintenance.run();
+
+        assertEquals(25, maintenance.getTimersPruned());
+        List<PlayerTimerData> kept = timers();
+        assertEquals(2, kept.size());
+        assertEquals(5, storage.loadData(alice, "arena").getSecondsUsed());
+        assertEquals(now + 60, storage.loadData(bob, "arena").getCooldownUntil());
+    }
+
+    @Test
+    void playerStateIsPrunedOnceNotWrittenForTheRetentionPeriod() {
+        init();
+        storage.saveLastWorld(alice, "arena");
+        storage.saveReturnLocation(alice, new Location(lobby, 1, 64, 1));
+        clock.advanceSeconds(91 * DAY);
+        storage.saveLastWorld(bob, "arena");
+
+        maintenance.run();
+
+        assertEquals(2, maintenance.getPlayerStatePruned());
+        assertNull(storage.loadLastWorld(alice));
+        assertNull(storage.loadReturnLocation(alice));
+        assertEquals("arena", storage.loadLastWorld(bob));
+    }
+
+    @Test
+    void rowsFromBeforeTheMigrationCountAsWrittenAtStartup() throws SQLException {
+        plugin.getDataFolder().mkdirs();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.getAbsolutePath());
+             Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE player_worlds (uuid TEXT NOT NULL PRIMARY KEY, last_world TEXT NOT NULL)");
+            stmt.executeUpdate("INSERT INTO player_worlds (uuid, last_world) VALUES ('" + alice + "', 'arena')");
+        }
+        init();
+
+        maintenance.run();
+        assertEquals("arena", storage.loadLastWorld(alice));
+
+        clock.advanceSeconds(91 * DAY);
+        maintenance.run();
+        assertNull(storage.loadLastWorld(alice));
+    }
+
+    private void init() {
+        storage = new SQLiteStorage(plugin);
+        storage.init();
+        maintenance = new StorageMaintenance(plugin, storage);
+        maintenance.configure(10, 0, 90, 100);
+    }
+
+    private List<PlayerTimerData> timers() throws IOException {
+        List<PlayerTimerData> result = new ArrayList<>();
+        storage.exportData(new DataVisitor() {
+            @Override
+            public void timer(PlayerTimerData data) {
+                result.add(data);
+            }
+
+            @Override
+            public void lastWorld(UUID playerUuid, String worldName) {
+            }
+
+            @Override
+            public void returnLocation(UUID playerUuid, StoredLocation location) {
+            }
+        });
+        return result;
+    }
+}
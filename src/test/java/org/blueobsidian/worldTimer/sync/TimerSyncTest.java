@@ -0,0 +1,149 @@
+package org.blueobsidian.worldTimer.sync;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.WorldTimerTestHarness;
+import org.blueobsidian.worldTimer.storage.InMemoryStorage;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.SQLiteStorage;
+import org.blueobsidian.worldTimer.storage.TimerChange;
+import org.blueobsidian.worldTimer.timer.TimerManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerSyncTest extends WorldTimerTestHarness {
+
+    // Stands in for another server on the in-process channel
+    private final LocalChangeFeed remote = new LocalChangeFeed();
+    private final List<TimerChange> fromPlugin = new ArrayList<>();
+
+    @BeforeEach
+    void startRemote() {
+        remote.start(fromPlugin::addAll);
+    }
+
+    @AfterEach
+    void stopRemote() {
+        remote.stop();
+    }
+
+    @Test
+    void cooldownFromAnotherServerBlocksEntryHere() {
+        PlayerMock player = join();
+
+        remote.publish(change(TimerChange.Type.SESSION, player.getUniqueId(), 10, clock.seconds() + 60, 0));
+        server.getScheduler().performOneTick();
+
+        assertEquals(60, plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena"));
+        assertFalse(teleport(player, arena));
+    }
+
+    @Test
+    void liveSessionKeepsItsTimeButTakesAdminChanges() {
+        PlayerMock player = join();
+        assertTrue(teleport(player, arena));
+        advanceSeconds(6);
+        TimerManager timers = plugin.getTimerManager();
+
+        // An older save from the server the player came from
+        remote.publish(change(TimerChange.Type.SESSION, player.getUniqueId(), 1, 0, 0));
+        server.getScheduler().performOneTick();
+        assertEquals(6, timers.getData(player.getUniqueId(), "arena").getSecondsUsed());
+
+        remote.publish(change(TimerChange.Type.TIME_ADDED, player.getUniqueId(), 0, 0, 4));
+        server.getScheduler().performOneTick();
+        assertEquals(2, timers.getData(player.getUniqueId(), "arena").getSecondsUsed());
+
+        remote.publish(change(TimerChange.Type.RESET, player.getUniqueId(), 0, 0, 0));
+        server.getScheduler().performOneTick();
+        assertFalse(timers.isTracking(player.getUniqueId(), "arena"));
+    }
+
+    @Test
+    void localWritesArePublished() {
+        PlayerMock player = join();
+        assertTrue(teleport(player, arena));
+        advanceSeconds(3);
+        assertTrue(teleport(player, lobby));
+        plugin.getTimerManager().setCooldown(player.getUniqueId(), "arena", 30);
+
+        assertEquals(2, fromPlugin.size());
+        TimerChange exit = fromPlugin.get(0);
+        assertEquals(TimerChange.Type.SESSION, exit.getType());
+        assertEquals("test", exit.getServer());
+        assertEquals(3, exit.getSecondsUsed());
+        assertEquals(TimerChange.Type.COOLDOWN, fromPlugin.get(1).getType());
+        assertEquals(clock.seconds() + 30, fromPlugin.get(1).getCooldownUntil());
+    }
+
+    @Test
+    void databaseFeedDeliversOtherServersChangesOnce() {
+        InMemoryStorage shared = new InMemoryStorage();
+        List<TimerChange> seenByA = new ArrayList<>();
+        List<TimerChange> seenByB = new ArrayList<>();
+        DatabaseChangeFeed a = new DatabaseChangeFeed(plugin, shared, "a", 20, 600);
+        DatabaseChangeFeed b = new DatabaseChangeFeed(plugin, shared, "b", 20, 600);
+        a.start(seenByA::addAll);
+        b.start(seenByB::addAll);
+
+        UUID uuid = new UUID(0, 1);
+        a.publish(new TimerChange(0, "a", TimerChange.Type.COOLDOWN, uuid, "arena", 0, clock.seconds() + 60, 0, clock.seconds()));
+        a.poll();
+        b.poll();
+        b.poll();
+
+        assertEquals(0, seenByA.size());
+        assertEquals(1, seenByB.size());
+        assertEquals(uuid, seenByB.get(0).getPlayerUuid());
+        a.stop();
+        b.stop();
+    }
+
+    @Test
+    void rowWrittenByAnotherServerIsReadFromSharedDatabase() {
+        File database = new File(plugin.getDataFolder(), "data.db");
+        database.delete();
+        // Both open the file before the row exists; B must still read what A saves
+        SQLiteStorage storageA = new SQLiteStorage(plugin);
+        SQLiteStorage storageB = new SQLiteStorage(plugin);
+        storageA.init();
+        storageB.init();
+        DatabaseChangeFeed a = new DatabaseChangeFeed(plugin, storageA, "a", 20, 600);
+        DatabaseChangeFeed b = new DatabaseChangeFeed(plugin, storageB, "b", 20, 600);
+        List<TimerChange> seenByB = new ArrayList<>();
+        a.start(changes -> { });
+        b.start(seenByB::addAll);
+        try {
+            UUID uuid = new UUID(0, 1);
+            long cooldownUntil = clock.seconds() + 60;
+            storageA.saveData(new PlayerTimerData(uuid, "arena", 12, cooldownUntil));
+            a.publish(new TimerChange(0, "a", TimerChange.Type.SESSION, uuid, "arena", 12, cooldownUntil, 0, clock.seconds()));
+            a.poll();
+            b.poll();
+
+            assertEquals(1, seenByB.size());
+            PlayerTimerData loaded = storageB.loadData(uuid, "arena");
+            assertEquals(12, loaded.getSecondsUsed());
+            assertEquals(cooldownUntil, loaded.getCooldownUntil());
+        } finally {
+            a.stop();
+            b.stop();
+            storageA.shutdown();
+            storageB.shutdown();
+            database.delete();
+        }
+    }
+
+    private TimerChange change(TimerChange.Type type, UUID uuid, long secondsUsed, long cooldownUntil, long secondsAdded) {
+        return new TimerChange(0, "other", type, uuid, "arena", secondsUsed, cooldownUntil, secondsAdded, clock.seconds());
+    }
+}
@@ -0,0 +1,100 @@
+package org.blueobsidian.worldTimer.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SessionTableTest {
+
+    private final SessionTable table = new SessionTable(16);
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+
+    @Test
+    void findsSessionsPerPlayerAndWorldIgnoringCase() {
+        int arena = table.put(alice, "Arena", 5, 10, 0);
+        int mine = table.put(alice, "mine", 7, 600, 0);
+        int bobArena = table.put(bob, "arena", 1, 10, 0);
+
+        assertEquals(arena, table.find(alice, "arena"));
+        assertEquals(mine, table.find(alice, "MINE"));
+        assertEquals(bobArena, table.find(bob, "Arena"));
+        assertEquals(SessionTable.NO_SLOT, table.find(bob, "mine"));
+        assertEquals("arena", table.getWorldName(arena));
+    }
+
+    @Test
+    void putReplacesExistingSession() {
+        int first = table.put(alice, "arena", 5, 10, 0);
+        int second = table.put(alice, "arena", 8, 20, 0);
+
+        assertEquals(first, second);
+        assertEquals(1, table.size());
+        assertEquals(8, table.getSecondsUsed(second));
+        assertEquals(20, table.getLimit(second));
+    }
+
+    @Test
+    void removeUnlinksFromTheMiddleOfAPlayersChain() {
+        int arena = table.put(alice, "arena", 0, 10, 0);
+        int mine = table.put(alice, "mine", 0, 10, 0);
+        int nether = table.put(alice, "nether", 0, 10, 0);
+
+        table.remove(mine);
+
+        assertFalse(table.isUsed(mine));
+        assertEquals(SessionTable.NO_SLOT, table.find(alice, "mine"));
+        assertEquals(arena, table.find(alice, "arena"));
+        assertEquals(nether, table.find(alice, "nether"));
+    }
+
+    @Test
+    void freedSlotsAreReusedBeforeGrowing() {
+        for (int i = 0; i < 40; i++) {
+            table.put(new UUID(1, i), "arena", i, 10, 0);
+        }
+        int slot = table.find(new UUID(1, 3), "arena");
+        table.remove(slot);
+        int highWater = table.getHighWater();
+
+        assertEquals(slot, table.put(bob, "arena", 0, 10, 0));
+        assertEquals(highWater, table.getHighWater());
+        assertEquals(40, table.size());
+        assertEquals(39, table.getSecondsUsed(table.find(new UUID(1, 39), "arena")));
+    }
+
+    @Test
+    void compactMovesSessionsDownAndKeepsChains() {
+        for (int i = 0; i < 40; i++) {
+            table.put(new UUID(1, i), "arena", i, 10, 0);
+        }
+        table.put(new UUID(1, 39), "mine", 3, 10, 0);
+        for (int i = 0; i < 38; i++) {
+            table.remove(table.find(new UUID(1, i), "arena"));
+        }
+
+        table.compact();
+
+        assertEquals(3, table.getHighWater());
+        assertEquals(38, table.getSecondsUsed(table.find(new UUID(1, 38), "arena")));
+        assertEquals(39, table.getSecondsUsed(table.find(new UUID(1, 39), "arena")));
+        assertEquals(3, table.getSecondsUsed(table.find(new UUID(1, 39), "mine")));
+        assertEquals(3, table.put(alice, "arena", 0, 10, 0));
+    }
+
+    @Test
+    void unusedWorldIdsAreReleasedAndReused() {
+        int dungeon = table.put(alice, "dungeon_1", 0, 10, 0);
+        int worldId = table.getWorldId(dungeon);
+        table.remove(dungeon);
+
+        int next = table.put(bob, "dungeon_2", 0, 10, 0);
+
+        assertEquals(SessionTable.NO_SLOT, table.find(alice, "dungeon_1"));
+        assertEquals(worldId, table.getWorldId(next));
+        assertEquals("dungeon_2", table.getWorldName(next));
+    }
+}
@@ -0,0 +1,64 @@
+package org.blueobsidian.worldTimer.timer;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import org.blueobsidian.worldTimer.WorldTimerTestHarness;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickBudgetTest extends WorldTimerTestHarness {
+
+    @Test
+    void degradesOverBudgetRunsDeferredWorkLaterAndRecovers() {
+        TickBudget budget = plugin.getTickBudget();
+        budget.configure(true, 1_000_000, 3);
+
+        budget.measure(() -> busyWait(2_000_000));
+        server.getScheduler().performOneTick();
+        assertTrue(budget.isDegraded());
+
+        List<String> ran = new ArrayList<>();
+        budget.defer(() -> ran.add("warning"));
+        assertTrue(ran.isEmpty());
+        server.getScheduler().performOneTick();
+        assertEquals(List.of("warning"), ran);
+
+        server.getScheduler().performTicks(3);
+        assertFalse(budget.isDegraded());
+        budget.defer(() -> ran.add("inline"));
+        assertEquals(List.of("warning", "inline"), ran);
+    }
+
+    @Test
+    void expiryIsEnforcedWhileWarningsAreDeferred() {
+        TickBudget budget = plugin.getTickBudget();
+        // Any measured work is over budget, and it never recovers
+        budget.configure(true, 1, Integer.MAX_VALUE);
+        PlayerMock player = join();
+        teleport(player, arena);
+
+        List<String> messages = new ArrayList<>();
+        advanceSeconds(10);
+        messages.addAll(drainMessages(player));
+        assertFalse(plugin.getTimerManager().isTracking(player.getUniqueId(), "arena"));
+        assertTrue(plugin.getTimerManager().getCooldownRemainingSeconds(player.getUniqueId(), "arena") > 0);
+
+        server.getScheduler().performTicks(TICKS_PER_SECOND);
+        messages.addAll(drainMessages(player));
+        assertTrue(budget.getDeferredTotal() > 0);
+        assertEquals(1, countStartingWith(messages, "warn arena"));
+        assertEquals(1, countStartingWith(messages, "expired arena"));
+    }
+
+    private static void busyWait(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
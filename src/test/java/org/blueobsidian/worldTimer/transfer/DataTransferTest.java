@@ -0,0 +1,75 @@
+package org.blueobsidian.worldTimer.transfer;
+
+import org.blueobsidian.worldTimer.WorldTimerTestHarness;
+import org.blueobsidian.worldTimer.storage.InMemoryStorage;
+import org.blueobsidian.worldTimer.storage.PlayerTimerData;
+import org.blueobsidian.worldTimer.storage.StorageManager;
+import org.bukkit.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DataTransferTest extends WorldTimerTestHarness {
+
+    @TempDir
+    File folder;
+
+    private final UUID alice = new UUID(0, 1);
+    private final UUID bob = new UUID(0, 2);
+
+    @Test
+    void exportedRowsImportIntoAnotherBackendInBothFormats() throws IOException {
+        StorageManager source = plugin.getStorageManager();
+        source.saveData(new PlayerTimerData(alice, "arena", 7, 0));
+        source.saveData(new PlayerTimerData(bob, "mine", 120, 1_900_000_000L));
+        source.saveLastWorld(alice, "arena");
+        source.saveReturnLocation(bob, new Location(lobby, 1.5, 64, -3.25, 90, 10));
+
+        for (TransferFormat format : TransferFormat.values()) {
+            File file = new File(folder, "export." + format.getExtension() + ".gz");
+            long exported = plugin.getDataTransfer().export(file, format, rows -> { });
+            assertEquals(4, exported);
+
+            InMemoryStorage target = new InMemoryStorage();
+            DataTransfer.ImportResult result = new DataTransfer(plugin, target).importFile(file, rows -> { });
+
+            assertEquals(4, result.imported());
+            assertEquals(0, result.skipped());
+            assertEquals(7, target.loadData(alice, "arena").getSecondsUsed());
+            assertEquals(1_900_000_000L, target.loadData(bob, "mine").getCooldownUntil());
+            assertEquals("arena", target.loadLastWorld(alice));
+            Location location = target.loadReturnLocation(bob);
+            assertEquals(lobby, location.getWorld());
+            assertEquals(-3.25, location.getZ());
+            assertEquals(90, location.getYaw());
+        }
+    }
+
+    @Test
+    void malformedLinesAreSkippedAndTheRestImported() throws IOException {
+        File file = new File(folder, "hand-written.jsonl");
+        Files.writeString(file.toPath(), String.join("\n",
+                "{\"type\":\"timer\",\"uuid\":\"" + alice + "\",\"world\":\"Arena\",\"seconds_used\":3,\"cooldown_until\":0}",
+                "{\"type\":\"timer\",\"uuid\":\"not-a-uuid\",\"world\":\"arena\",\"seconds_used\":3,\"cooldown_until\":0}",
+                "{\"type\":\"unknown\",\"uuid\":\"" + bob + "\",\"world\":\"arena\"}",
+                "",
+                "{\"type\":\"last_world\",\"uuid\":\"" + bob + "\",\"world\":\"mine\"}"), StandardCharsets.UTF_8);
+
+        InMemoryStorage target = new InMemoryStorage();
+        DataTransfer.ImportResult result = new DataTransfer(plugin, target).importFile(file, rows -> { });
+
+        assertEquals(2, result.imported());
+        assertEquals(2, result.skipped());
+        assertEquals(3, target.loadData(alice, "arena").getSecondsUsed());
+        assertEquals("mine", target.loadLastWorld(bob));
+        assertNull(target.loadLastWorld(alice));
+    }
+}